@@ -0,0 +1,21 @@
+#!/bin/bash
+# Compares two results of the benchmarks, e.g. the baseline of the last release and the current code.
+# Prints the throughput (ops per time unit) and the bytes allocated per operation of each benchmark.
+# Usage: ./compare-baseline.sh baseline/jcolor-5.5.2.json target/current.json
+set -e
+BASELINE="${1:?Usage: $0 <baseline.json> <current.json>}"
+CURRENT="${2:?Usage: $0 <baseline.json> <current.json>}"
+
+# One line per benchmark and its params: name, score, bytes per operation
+summary() {
+    jq -r '.[] | [
+        (.benchmark | sub(".*\\.(?<c>[^.]+\\.[^.]+)$"; "\(.c)")) + (.params // {} | to_entries | map(" " + .key + "=" + .value) | join("")),
+        .primaryMetric.score,
+        ((.secondaryMetrics["gc.alloc.rate.norm"] // .secondaryMetrics["·gc.alloc.rate.norm"] // {score: "-"}).score)
+    ] | join("|")' "$1" | sort
+}
+
+join -t '|' <(summary "$BASELINE") <(summary "$CURRENT") | awk -F '|' '
+    BEGIN { printf "%-70s %14s %14s %8s %12s %12s\n", "Benchmark", "Baseline", "Current", "Change", "Base B/op", "Curr B/op" }
+    function bytes(value) { return (value == "-") ? value : sprintf("%.1f", value) }
+    { printf "%-70s %14.3f %14.3f %+7.1f%% %12s %12s\n", $1, $2, $4, ($4 - $2) * 100 / $2, bytes($3), bytes($5) }'
@@ -0,0 +1,10 @@
+#!/bin/bash
+# Runs every benchmark, with the allocations of each one (gc.alloc.rate.norm), and saves the results as
+# the baseline of a version. Run it from the tag of a release, or from the tree for a -SNAPSHOT, and add
+# the machine and JDK to baseline/README.md.
+# Usage: ./record-baseline.sh 5.5.2
+set -e
+VERSION="${1:?Usage: $0 <version>}"
+cd "$(dirname "$0")"
+mvn -B -q package
+java -jar target/benchmarks.jar -prof gc -rf json -rff "baseline/jcolor-$VERSION.json"
@@ -0,0 +1,59 @@
+package com.diogonunes.jcolor.benchmarks;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiStringBuilder;
+import com.diogonunes.jcolor.ColorMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.diogonunes.jcolor.Attribute.*;
+
+/**
+ * Measures building a line of 3 spans in a reused {@link AnsiStringBuilder}, and rendering it into a reused buffer.
+ * Once both are warm, a line allocates nothing: with {@code -prof gc}, {@code gc.alloc.rate.norm} should be 0 B/op.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnsiStringBuilderBenchmark {
+
+    @Param({"ANSI256", "TRUECOLOR"})
+    public ColorMode colorMode;
+
+    private AnsiFormat _bold, _red, _blue;
+    private AnsiStringBuilder _builder;
+    private StringBuilder _output;
+
+    @Setup
+    public void setUp() {
+        Ansi.setColorMode(colorMode);
+        _bold = new AnsiFormat(BOLD());
+        _red = new AnsiFormat(RED_TEXT());
+        _blue = new AnsiFormat(BLUE_BACK());
+        _builder = new AnsiStringBuilder();
+        _output = new StringBuilder();
+    }
+
+    @Benchmark
+    public StringBuilder renderReused() {
+        _builder.reset().append("name", _bold).append(" = ", _red).append("value", _blue);
+        _output.setLength(0);
+        _builder.renderTo(_output);
+        return _output;
+    }
+}
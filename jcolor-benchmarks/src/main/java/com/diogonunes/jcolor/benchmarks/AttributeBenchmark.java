@@ -0,0 +1,53 @@
+package com.diogonunes.jcolor.benchmarks;
+
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.Attribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.diogonunes.jcolor.Attribute.*;
+
+/**
+ * Measures the factories of attributes, which are called for every format, and creating a format.
+ * Colors are read from fields, so that the JIT can't fold them into constants.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AttributeBenchmark {
+
+    private int _index = 196;
+    private int _red = 255, _green = 95, _blue = 0;
+
+    @Benchmark
+    public Attribute basicColor() {
+        return RED_TEXT();
+    }
+
+    @Benchmark
+    public Attribute indexedColor() {
+        return TEXT_COLOR(_index);
+    }
+
+    @Benchmark
+    public Attribute trueColor() {
+        return TEXT_COLOR(_red, _green, _blue);
+    }
+
+    @Benchmark
+    public AnsiFormat newFormat() {
+        return new AnsiFormat(BOLD(), TEXT_COLOR(_red, _green, _blue), BACK_COLOR(_index));
+    }
+}
@@ -0,0 +1,102 @@
+package com.diogonunes.jcolor.benchmarks;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.Attribute;
+import com.diogonunes.jcolor.ColorMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.diogonunes.jcolor.Attribute.*;
+
+/**
+ * Measures formatting a text, from a single line to a text of several MB, with each way of formatting:
+ * attributes, whose code is generated for each call, a reused {@link AnsiFormat}, and a reused buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorizeBenchmark {
+
+    /**
+     * Texts to format.
+     */
+    public enum Input {
+        SINGLE_LINE(1),
+        MULTI_LINE(20),
+        HUGE(100_000); // about 8 MB
+
+        private final int _lineCount;
+
+        Input(int lineCount) {
+            _lineCount = lineCount;
+        }
+
+        String create() {
+            StringBuilder text = new StringBuilder(_lineCount * 80);
+            for (int i = 0; i < _lineCount; i++) {
+                if (i > 0)
+                    text.append('\n');
+                text.append("2024-01-31 12:00:00.000 INFO  com.example.Service: Request ").append(i).append(" done");
+            }
+            return text.toString();
+        }
+    }
+
+    @Param({"SINGLE_LINE", "MULTI_LINE", "HUGE"})
+    public Input input;
+
+    @Param({"ANSI256", "TRUECOLOR"})
+    public ColorMode colorMode;
+
+    private String _text;
+    private Attribute[] _attributes;
+    private AnsiFormat _format;
+    private StringBuilder _output;
+
+    @Setup
+    public void setUp() {
+        // set the mode, so that the results do not depend on the terminal that runs the benchmark
+        Ansi.setColorMode(colorMode);
+        _text = input.create();
+        _attributes = new Attribute[]{BOLD(), TEXT_COLOR(255, 95, 0), BACK_COLOR(0, 0, 95)};
+        _format = new AnsiFormat(_attributes);
+        _output = new StringBuilder();
+    }
+
+    @Benchmark
+    public String colorizeAttributes() {
+        return Ansi.colorize(_text, _attributes);
+    }
+
+    @Benchmark
+    public String colorizeFormat() {
+        return Ansi.colorize(_text, _format);
+    }
+
+    @Benchmark
+    public String format() {
+        return _format.format(_text);
+    }
+
+    @Benchmark
+    public StringBuilder formatToBuffer() {
+        _output.setLength(0);
+        _format.formatTo(_output, _text);
+        return _output;
+    }
+}
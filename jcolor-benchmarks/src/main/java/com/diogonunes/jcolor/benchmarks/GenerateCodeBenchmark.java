@@ -0,0 +1,65 @@
+package com.diogonunes.jcolor.benchmarks;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.Attribute;
+import com.diogonunes.jcolor.ColorMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.diogonunes.jcolor.Attribute.*;
+
+/**
+ * Measures {@link Ansi#generateCode(Attribute...)} for basic, 8-bit and true colors. In ANSI256 mode, true
+ * colors are downsampled to the palette, so comparing both modes shows the cost of downsampling.
+ * {@link LegacyGenerateCodeBenchmark} measures the previous generator on the same attributes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateCodeBenchmark {
+
+    @Param({"ANSI256", "TRUECOLOR"})
+    public ColorMode colorMode;
+
+    private Attribute[] _basicColors;
+    private Attribute[] _indexedColors;
+    private Attribute[] _trueColors;
+
+    @Setup
+    public void setUp() {
+        // set the mode, so that the results do not depend on the terminal that runs the benchmark
+        Ansi.setColorMode(colorMode);
+        _basicColors = new Attribute[]{BOLD(), RED_TEXT(), BLUE_BACK()};
+        _indexedColors = new Attribute[]{BOLD(), TEXT_COLOR(196), BACK_COLOR(17)};
+        _trueColors = new Attribute[]{BOLD(), TEXT_COLOR(255, 95, 0), BACK_COLOR(0, 0, 95)};
+    }
+
+    @Benchmark
+    public String basicColors() {
+        return Ansi.generateCode(_basicColors);
+    }
+
+    @Benchmark
+    public String indexedColors() {
+        return Ansi.generateCode(_indexedColors);
+    }
+
+    @Benchmark
+    public String trueColors() {
+        return Ansi.generateCode(_trueColors);
+    }
+}
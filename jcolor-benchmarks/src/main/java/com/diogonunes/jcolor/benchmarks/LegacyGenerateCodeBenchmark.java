@@ -0,0 +1,145 @@
+package com.diogonunes.jcolor.benchmarks;
+
+import com.diogonunes.jcolor.Ansi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generator that single-pass generation replaced, to compare with {@link GenerateCodeBenchmark}.
+ * It is a copy of the old Ansi.generateCode and of the old attributes: each attribute concatenated its
+ * prefix and components into a new String on every call, then the code was built in a StringBuilder and
+ * the last separator was removed with String.replace. It has no color modes, so compare it with the
+ * TRUECOLOR results, on the same attributes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LegacyGenerateCodeBenchmark {
+
+    private final Object[] _basicColors = {
+            new SimpleAttribute("1"), new SimpleAttribute("31"), new SimpleAttribute("44")};
+    private final Object[] _indexedColors = {
+            new SimpleAttribute("1"), new TextColorAttribute(196), new BackColorAttribute(17)};
+    private final Object[] _trueColors = {
+            new SimpleAttribute("1"), new TextColorAttribute(255, 95, 0), new BackColorAttribute(0, 0, 95)};
+
+    @Benchmark
+    public String basicColors() {
+        return generateCode(_basicColors);
+    }
+
+    @Benchmark
+    public String indexedColors() {
+        return generateCode(_indexedColors);
+    }
+
+    @Benchmark
+    public String trueColors() {
+        return generateCode(_trueColors);
+    }
+
+    // Copy of Ansi.generateCode(Attribute...) before it generated codes in a single pass
+    private static String generateCode(Object... attributes) {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(Ansi.PREFIX);
+        for (Object option : attributes) {
+            String code = option.toString();
+            if (code.equals(""))
+                continue;
+            builder.append(code);
+            builder.append(Ansi.SEPARATOR);
+        }
+        builder.append(Ansi.POSTFIX);
+
+        // because code must not end with SEPARATOR
+        return builder.toString().replace(Ansi.SEPARATOR + Ansi.POSTFIX, Ansi.POSTFIX);
+    }
+
+    // Copy of the old SimpleAttribute
+    private static final class SimpleAttribute {
+        private final String _code;
+
+        SimpleAttribute(String code) {
+            _code = code;
+        }
+
+        @Override
+        public String toString() {
+            return _code;
+        }
+    }
+
+    // Copy of the old ColorAttribute, which rendered its code on every call of toString()
+    private abstract static class ColorAttribute {
+        protected final String[] _color;
+
+        ColorAttribute(int colorNumber) {
+            _color = new String[]{String.valueOf(colorNumber)};
+        }
+
+        ColorAttribute(int r, int g, int b) {
+            _color = new String[]{String.valueOf(r), String.valueOf(g), String.valueOf(b)};
+        }
+
+        protected boolean isTrueColor() {
+            return (_color.length == 3);
+        }
+
+        protected abstract String getColorAnsiPrefix();
+
+        protected String getColorAnsiCode() {
+            if (isTrueColor())
+                return _color[0] + Ansi.SEPARATOR + _color[1] + Ansi.SEPARATOR + _color[2];
+            else
+                return _color[0];
+        }
+
+        @Override
+        public String toString() {
+            return getColorAnsiPrefix() + getColorAnsiCode();
+        }
+    }
+
+    private static final class TextColorAttribute extends ColorAttribute {
+        TextColorAttribute(int colorNumber) {
+            super(colorNumber);
+        }
+
+        TextColorAttribute(int r, int g, int b) {
+            super(r, g, b);
+        }
+
+        @Override
+        protected String getColorAnsiPrefix() {
+            return isTrueColor() ? "38;2;" : "38;5;";
+        }
+    }
+
+    private static final class BackColorAttribute extends ColorAttribute {
+        BackColorAttribute(int colorNumber) {
+            super(colorNumber);
+        }
+
+        BackColorAttribute(int r, int g, int b) {
+            super(r, g, b);
+        }
+
+        @Override
+        protected String getColorAnsiPrefix() {
+            return isTrueColor() ? "48;2;" : "48;5;";
+        }
+    }
+}
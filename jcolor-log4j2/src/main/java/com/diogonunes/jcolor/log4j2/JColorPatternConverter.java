@@ -0,0 +1,89 @@
+package com.diogonunes.jcolor.log4j2;
+
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.logging.LogEventFormats;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.pattern.ConverterKeys;
+import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
+import org.apache.logging.log4j.core.pattern.PatternConverter;
+import org.apache.logging.log4j.core.pattern.PatternFormatter;
+import org.apache.logging.log4j.core.pattern.PatternParser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formats the text of its pattern with a format chosen from the level, or the context data (MDC), of each
+ * event. Unlike %highlight, formats can use any attribute of JColor, e.g. true colors. In a PatternLayout:
+ * <pre>
+ * %d %jcolor{%-5level %logger}{ERROR=bold, text_color(255, 95, 0)}{tenant:acme=magenta} %msg%n
+ * </pre>
+ * The first option is the pattern, and each of the others is a mapping, see {@link LogEventFormats}.
+ * Formats are created once, when the layout is created. The pattern is written straight into the layout's
+ * buffer and formatted there, so no intermediate String is created for each event.
+ */
+@Plugin(name = "JColorPatternConverter", category = PatternConverter.CATEGORY)
+@ConverterKeys({"jcolor"})
+public final class JColorPatternConverter extends LogEventPatternConverter {
+
+    private final PatternFormatter[] _formatters;
+    private final LogEventFormats _formats;
+    private final boolean _handlesThrowable;
+
+    private JColorPatternConverter(List<PatternFormatter> formatters, LogEventFormats formats) {
+        super("JColor", "jcolor");
+        _formatters = formatters.toArray(new PatternFormatter[0]);
+        _formats = formats;
+        boolean handlesThrowable = false;
+        for (PatternFormatter formatter : _formatters)
+            handlesThrowable |= formatter.handlesThrowable();
+        _handlesThrowable = handlesThrowable;
+    }
+
+    /**
+     * Called by Log4j2 for each %jcolor of a layout.
+     *
+     * @param config  Configuration of the layout.
+     * @param options The pattern, followed by mappings such as "ERROR=bold, red".
+     * @return The converter, or null if its options are invalid.
+     */
+    public static JColorPatternConverter newInstance(Configuration config, String[] options) {
+        if (options == null || options.length == 0 || options[0] == null) {
+            LOGGER.error("%jcolor needs a pattern, e.g. %jcolor{%level}{ERROR=bold, red}");
+            return null;
+        }
+        try {
+            PatternParser parser = PatternLayout.createPatternParser(config);
+            List<PatternFormatter> formatters = parser.parse(options[0]);
+            LogEventFormats formats = LogEventFormats.parse(Arrays.asList(options).subList(1, options.length));
+            return new JColorPatternConverter(formatters, formats);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid options of %jcolor: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder toAppendTo) {
+        int start = toAppendTo.length();
+        for (PatternFormatter formatter : _formatters)
+            formatter.format(event, toAppendTo);
+        if (toAppendTo.length() == start)
+            return;
+
+        String level = event.getLevel().name();
+        AnsiFormat format = _formats.hasMdcFormats()
+                ? _formats.getFormat(level, event.getContextData()::getValue)
+                : _formats.getFormat(level);
+        if (format != null)
+            format.formatInPlace(toAppendTo, start);
+    }
+
+    @Override
+    public boolean handlesThrowable() {
+        return _handlesThrowable;
+    }
+}
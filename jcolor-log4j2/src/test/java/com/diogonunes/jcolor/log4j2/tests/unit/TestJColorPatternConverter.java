@@ -0,0 +1,109 @@
+package com.diogonunes.jcolor.log4j2.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.ColorMode;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.diogonunes.jcolor.Ansi.colorize;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Assert that a Log4j2 pattern formats the text of %jcolor with the format of each event.
+ */
+public class TestJColorPatternConverter {
+
+    private static final String PATTERN = "%jcolor{%level %msg}{ERROR=bold, text_color(255, 95, 0)}{tenant:acme=magenta}";
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Converter_DefaultFormats() {
+        // ARRANGE
+        PatternLayout layout = createLayout("%jcolor{%level} %msg");
+
+        // ACT
+        String text = layout.toSerializable(event(Level.WARN, "Disk full", null));
+
+        // ASSERT
+        assertThat(text, equalTo(colorize("WARN", YELLOW_TEXT()) + " Disk full"));
+    }
+
+    @Test
+    public void Converter_LevelOption() {
+        // ARRANGE
+        PatternLayout layout = createLayout(PATTERN);
+
+        // ACT
+        String text = layout.toSerializable(event(Level.ERROR, "Connection lost", null));
+
+        // ASSERT
+        assertThat(text, equalTo(colorize("ERROR Connection lost", BOLD(), TEXT_COLOR(255, 95, 0))));
+    }
+
+    @Test
+    public void Converter_MdcOption() {
+        // ARRANGE
+        PatternLayout layout = createLayout(PATTERN);
+        SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("tenant", "acme");
+
+        // ACT
+        String text = layout.toSerializable(event(Level.ERROR, "Quota", contextData));
+
+        // ASSERT
+        assertThat(text, equalTo(colorize("ERROR Quota", MAGENTA_TEXT())));
+    }
+
+    @Test
+    public void Converter_MultipleLines_FormatsEachLine() {
+        // ARRANGE
+        PatternLayout layout = createLayout(PATTERN);
+
+        // ACT
+        String text = layout.toSerializable(event(Level.ERROR, "Line 1\r\nLine 2", null));
+
+        // ASSERT
+        String code = Ansi.generateCode(BOLD(), TEXT_COLOR(255, 95, 0));
+        assertThat(text, equalTo(code + "ERROR Line 1" + Ansi.RESET + "\r\n" + code + "Line 2" + Ansi.RESET));
+    }
+
+    private static PatternLayout createLayout(String pattern) {
+        return PatternLayout.newBuilder()
+                .withPattern(pattern)
+                .withConfiguration(new DefaultConfiguration())
+                .build();
+    }
+
+    private static LogEvent event(Level level, String message, SortedArrayStringMap contextData) {
+        Log4jLogEvent.Builder event = Log4jLogEvent.newBuilder()
+                .setLoggerName("com.example")
+                .setLevel(level)
+                .setMessage(new SimpleMessage(message));
+        if (contextData != null)
+            event.setContextData(contextData);
+        return event.build();
+    }
+
+}
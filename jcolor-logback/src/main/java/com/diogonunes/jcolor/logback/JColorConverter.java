@@ -0,0 +1,51 @@
+package com.diogonunes.jcolor.logback;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.CompositeConverter;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.logging.LogEventFormats;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Formats the text of its pattern with a format chosen from the level, or the MDC, of each event. Unlike
+ * %highlight, formats can use any attribute of JColor, e.g. true colors. Register it in logback.xml:
+ * <pre>
+ * &lt;conversionRule conversionWord="jcolor" converterClass="com.diogonunes.jcolor.logback.JColorConverter"/&gt;
+ * &lt;pattern&gt;%d %jcolor(%-5level %logger){'ERROR=bold, text_color(255, 95, 0)', 'tenant:acme=magenta'} %msg%n&lt;/pattern&gt;
+ * </pre>
+ * Options are quoted, because Logback also separates options with commas. See {@link LogEventFormats} for
+ * their syntax. Formats are created once, when the converter starts, and invalid options are reported as
+ * errors of Logback's status, in which case the default formats are used.
+ */
+public class JColorConverter extends CompositeConverter<ILoggingEvent> {
+
+    private LogEventFormats _formats = LogEventFormats.defaults();
+
+    @Override
+    public void start() {
+        List<String> options = getOptionList();
+        try {
+            _formats = LogEventFormats.parse(options != null ? options : Collections.<String>emptyList());
+        } catch (IllegalArgumentException e) {
+            addError("Invalid options of " + getClass().getSimpleName() + ", the default formats are used", e);
+        }
+        super.start();
+    }
+
+    /**
+     * Logback gives a composite converter the text of its pattern as a String, so the formatted text is
+     * created in a single copy, with the code of the format that was created when the converter started.
+     */
+    @Override
+    protected String transform(ILoggingEvent event, String in) {
+        if (in.isEmpty())
+            return in;
+        String level = event.getLevel().toString();
+        AnsiFormat format = _formats.hasMdcFormats()
+                ? _formats.getFormat(level, event.getMDCPropertyMap()::get)
+                : _formats.getFormat(level);
+        return (format != null) ? format.format(in) : in;
+    }
+}
@@ -0,0 +1,100 @@
+package com.diogonunes.jcolor.logback.tests.unit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.status.StatusUtil;
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.ColorMode;
+import com.diogonunes.jcolor.logback.JColorConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.diogonunes.jcolor.Ansi.colorize;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Assert that a Logback pattern formats the text of %jcolor with the format of each event.
+ */
+public class TestJColorConverter {
+
+    private ColorMode _previousMode;
+    private LoggerContext _context;
+    private Logger _logger;
+
+    @BeforeEach
+    public void setUp() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+        _context = new LoggerContext();
+        _logger = _context.getLogger("com.example");
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Converter_DefaultFormats() {
+        // ARRANGE
+        PatternLayout layout = createLayout("%jcolor(%level) %msg");
+
+        // ACT
+        String text = layout.doLayout(event(Level.ERROR, "Connection lost"));
+
+        // ASSERT
+        assertThat(text, equalTo(colorize("ERROR", BOLD(), RED_TEXT()) + " Connection lost"));
+    }
+
+    @Test
+    public void Converter_LevelAndMdcOptions() {
+        // ARRANGE
+        PatternLayout layout = createLayout("%jcolor(%level %msg){'WARN=bold, text_color(255, 95, 0)', 'tenant:acme=magenta'}");
+        LoggingEvent acmeEvent = event(Level.WARN, "Quota");
+        acmeEvent.setMDCPropertyMap(Collections.singletonMap("tenant", "acme"));
+
+        // ACT
+        String text = layout.doLayout(event(Level.WARN, "Disk full"));
+        String acmeText = layout.doLayout(acmeEvent);
+
+        // ASSERT
+        assertThat(text, equalTo(colorize("WARN Disk full", BOLD(), TEXT_COLOR(255, 95, 0))));
+        assertThat(acmeText, equalTo(colorize("WARN Quota", MAGENTA_TEXT())));
+    }
+
+    @Test
+    public void Converter_InvalidOption_UsesDefaults() {
+        // ARRANGE
+        PatternLayout layout = createLayout("%jcolor(%level){'INFO=shiny'}");
+
+        // ACT
+        String text = layout.doLayout(event(Level.INFO, "Started"));
+
+        // ASSERT
+        assertThat(text, equalTo(colorize("INFO", GREEN_TEXT())));
+        assertThat(new StatusUtil(_context).getHighestLevel(0), equalTo(Status.ERROR));
+    }
+
+    private PatternLayout createLayout(String pattern) {
+        PatternLayout layout = new PatternLayout();
+        layout.setContext(_context);
+        layout.getInstanceConverterMap().put("jcolor", JColorConverter.class.getName());
+        layout.setPattern(pattern);
+        layout.start();
+        return layout;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), _logger, level, message, null, null);
+    }
+
+}
@@ -1,5 +1,11 @@
 package com.diogonunes.jcolor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.stream.Stream;
+
 /**
  * Provides a fluent API to generate
  * <a href="https://en.wikipedia.org/wiki/ANSI_escape_code">ANSI escape sequences</a>
@@ -8,7 +14,6 @@ package com.diogonunes.jcolor;
 public class Ansi {
 
     private static final char ESC = 27; // Escape character used to start an ANSI code
-    private static final String NEWLINE = System.getProperty("line.separator");
 
     /**
      * Every Ansi escape code begins with this PREFIX.
@@ -27,25 +32,89 @@ public class Ansi {
      */
     public static final String RESET = PREFIX + Attribute.CLEAR() + POSTFIX;
 
+    private static volatile ColorMode _colorMode = ColorMode.detect();
+    private static volatile AnsiCodeCache _codeCache = null;
+
+    /**
+     * @return How many colors the terminal supports. It is detected once, see {@link ColorMode#detect()}.
+     */
+    public static ColorMode getColorMode() {
+        return _colorMode;
+    }
+
+    /**
+     * Overrides the detected mode. When it is {@link ColorMode#OFF}, text is returned as it is and
+     * no ANSI code is generated.
+     *
+     * @param colorMode How many colors the terminal supports.
+     */
+    public static void setColorMode(ColorMode colorMode) {
+        if (colorMode == null)
+            throw new IllegalArgumentException("Color mode must not be null");
+        _colorMode = colorMode;
+    }
+
+    static boolean isColorOff() {
+        return _colorMode == ColorMode.OFF;
+    }
+
+    /**
+     * @return The cache used by {@link #generateCode(Attribute...)}, or null if codes are not cached.
+     */
+    public static AnsiCodeCache getCodeCache() {
+        return _codeCache;
+    }
+
+    /**
+     * Caches the codes generated for attributes, e.g. colors computed for each value. By default,
+     * codes are not cached.
+     *
+     * @param codeCache The cache used by {@link #generateCode(Attribute...)}, or null to stop caching codes.
+     */
+    public static void setCodeCache(AnsiCodeCache codeCache) {
+        _codeCache = codeCache;
+    }
+
     /**
      * @param attributes ANSI attributes to format a text.
      * @return The ANSI code that describes all those attributes together.
      */
     public static String generateCode(Attribute... attributes) {
-        StringBuilder builder = new StringBuilder();
+        AnsiCodeCache codeCache = _codeCache;
+        if (codeCache != null)
+            return codeCache.getCode(_colorMode, attributes);
+        return renderCode(_colorMode, attributes);
+    }
+
+    /**
+     * @param mode       How many colors the terminal supports.
+     * @param attributes ANSI attributes to format a text.
+     * @return The ANSI code that describes all those attributes together, using only colors of that mode.
+     */
+    static String renderCode(ColorMode mode, Attribute... attributes) {
+        if (mode == ColorMode.OFF)
+            return "";
+
+        // Size the buffer for the worst case, where every code is followed by a SEPARATOR
+        int length = PREFIX.length() + POSTFIX.length();
+        for (Attribute attribute : attributes)
+            length += attribute.toString(mode).length() + SEPARATOR.length();
 
+        StringBuilder builder = new StringBuilder(length);
         builder.append(PREFIX);
-        for (Object option : attributes) {
-            String code = option.toString();
-            if (code.equals(""))
+        boolean isFirstCode = true;
+        for (Attribute attribute : attributes) {
+            String code = attribute.toString(mode);
+            if (code.isEmpty())
                 continue;
+            // because code must not end with SEPARATOR, it only goes between codes
+            if (!isFirstCode)
+                builder.append(SEPARATOR);
             builder.append(code);
-            builder.append(SEPARATOR);
+            isFirstCode = false;
         }
         builder.append(POSTFIX);
-
-        // because code must not end with SEPARATOR
-        return builder.toString().replace(SEPARATOR + POSTFIX, POSTFIX);
+        return builder.toString();
     }
 
     /**
@@ -53,7 +122,7 @@ public class Ansi {
      * @return The ANSI code that describes all those attributes together.
      */
     public static String generateCode(AnsiFormat attributes) {
-        return generateCode(attributes.toArray());
+        return attributes.getCode();
     }
 
     /**
@@ -61,7 +130,7 @@ public class Ansi {
      * @return The ANSI code that describes that command.
      */
     public static String generateCode(Command command) {
-        return PREFIX + command;
+        return isColorOff() ? "" : PREFIX + command;
     }
 
     /**
@@ -78,8 +147,164 @@ public class Ansi {
      * @return The formatted string, ready to be printed.
      */
     public static String colorize(String text, String ansiCode) {
-        StringBuilder output = new StringBuilder();
+        return colorize(text, ansiCode, ResetPolicy.EACH_LINE);
+    }
+
+    /**
+     * @param text     String to format.
+     * @param ansiCode Ansi code to format the message.
+     * @param policy   Where the format is reset, e.g. on each line.
+     * @return The formatted string, ready to be printed.
+     */
+    public static String colorize(String text, String ansiCode, ResetPolicy policy) {
+        if (isColorOff())
+            return text;
+        // The text is copied into the builder and then into the String. A char[] would be copied twice too, and
+        // takes 2 bytes per char, while the builder of a Latin-1 text takes 1 (Java 9+)
+        StringBuilder output = new StringBuilder(colorizedLength(text, 0, text.length(), ansiCode, policy));
+        appendColorized(output, text, 0, text.length(), ansiCode, policy);
+        return output.toString();
+    }
+
+    /**
+     * @param output Where the formatted text is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @param text   Text to format.
+     * @param format Object containing format attributes.
+     * @throws IOException If the output fails to append the formatted text.
+     */
+    public static void colorizeTo(Appendable output, CharSequence text, AnsiFormat format) throws IOException {
+        format.formatTo(output, text);
+    }
+
+    /**
+     * @param output Where the formatted text is appended to.
+     * @param text   Text to format.
+     * @param format Object containing format attributes.
+     */
+    public static void colorizeTo(StringBuilder output, CharSequence text, AnsiFormat format) {
+        format.formatTo(output, text);
+    }
+
+    /**
+     * Formats a slice of the text, without copying it first.
+     *
+     * @param text   Text that contains the slice to format.
+     * @param start  Index of the first char of the slice.
+     * @param end    Index after the last char of the slice.
+     * @param format Object containing format attributes.
+     * @return The formatted slice, ready to be printed.
+     */
+    public static String colorize(CharSequence text, int start, int end, AnsiFormat format) {
+        return format.format(text, start, end);
+    }
+
+    /**
+     * @param output Where the formatted slice is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @param text   Text that contains the slice to format.
+     * @param start  Index of the first char of the slice.
+     * @param end    Index after the last char of the slice.
+     * @param format Object containing format attributes.
+     * @throws IOException If the output fails to append the formatted slice.
+     */
+    public static void colorizeTo(Appendable output, CharSequence text, int start, int end, AnsiFormat format)
+            throws IOException {
+        format.formatTo(output, text, start, end);
+    }
+
+    /**
+     * @param output Where the formatted slice is appended to.
+     * @param text   Text that contains the slice to format.
+     * @param start  Index of the first char of the slice.
+     * @param end    Index after the last char of the slice.
+     * @param format Object containing format attributes.
+     */
+    public static void colorizeTo(StringBuilder output, CharSequence text, int start, int end, AnsiFormat format) {
+        format.formatTo(output, text, start, end);
+    }
+
+    /**
+     * Formats a large text on several threads, see {@link AnsiFormat#formatParallel(CharSequence)}.
+     *
+     * @param text   Text to format.
+     * @param format Object containing format attributes.
+     * @return The formatted text, ready to be printed.
+     */
+    public static String colorizeParallel(CharSequence text, AnsiFormat format) {
+        return format.formatParallel(text);
+    }
 
+    /**
+     * Formats each line of a stream lazily, see {@link AnsiFormat#formatLines(Stream)}.
+     *
+     * @param lines  Lines to format.
+     * @param format Object containing format attributes.
+     * @return The formatted lines, ready to be printed.
+     */
+    public static Stream<String> colorizeLines(Stream<String> lines, AnsiFormat format) {
+        return format.formatLines(lines);
+    }
+
+    /**
+     * Splits a text into formatted lines, see {@link AnsiFormat#lines(CharSequence)}.
+     *
+     * @param text   Text to split into lines.
+     * @param format Object containing format attributes.
+     * @return The formatted lines, ready to be printed.
+     */
+    public static Stream<String> colorizeLines(CharSequence text, AnsiFormat format) {
+        return format.lines(text);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException If the slice between start and end is not inside the text.
+     */
+    static void checkRange(CharSequence text, int start, int end) {
+        if (start < 0 || start > end || end > text.length())
+            throw new IndexOutOfBoundsException(
+                    String.format("Range [%d, %d) is out of bounds for length %d", start, end, text.length()));
+    }
+
+    /**
+     * @return The length of the text, between start and end, once formatted by the ansi code, so that the
+     * output is sized once. With {@link ResetPolicy#EACH_LINE}, it counts the line breaks first.
+     */
+    static int colorizedLength(CharSequence text, int start, int end, String ansiCode, ResetPolicy policy) {
+        int length = ansiCode.length() + (end - start);
+        if (policy == ResetPolicy.EACH_LINE)
+            length += countLineBreaks(text, start, end) * (RESET.length() + ansiCode.length());
+        return (policy == ResetPolicy.NONE) ? length : length + RESET.length();
+    }
+
+    /**
+     * @return How many line breaks the text has, between start and end. \r\n counts as one.
+     */
+    static int countLineBreaks(CharSequence text, int start, int end) {
+        int lineBreaks = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 >= end || text.charAt(i + 1) != '\n')))
+                lineBreaks++;
+        }
+        return lineBreaks;
+    }
+
+    /**
+     * Appends the text, between start and end, formatted by the ansi code.
+     */
+    static void appendColorized(StringBuilder output, CharSequence text, int start, int end,
+                                String ansiCode, ResetPolicy policy) {
+        try {
+            appendColorized((Appendable) output, text, start, end, ansiCode, policy);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // never happens, a StringBuilder does not throw it
+        }
+    }
+
+    /**
+     * Appends the text, between start and end, formatted by the ansi code.
+     */
+    static void appendColorized(Appendable output, CharSequence text, int start, int end,
+                                String ansiCode, ResetPolicy policy) throws IOException {
         /*
          * Every formatted line should:
          * 1) start with a code that sets the format
@@ -88,13 +313,101 @@ public class Ansi {
          * is noticeable when the background is colored.
          */
 
+        if (isColorOff()) {
+            appendText(output, text, start, end);
+            return;
+        }
+
         output.append(ansiCode);
-        // Each line needs to end the current format (RESET) and start it on the next line.
-        // This avoids spilling, ie. a long line without text but formatted background
-        String enclosedFormatting = text.replace(NEWLINE, RESET + NEWLINE + ansiCode);
-        output.append(enclosedFormatting);
-        output.append(RESET);
-        return output.toString();
+        if (policy == ResetPolicy.EACH_LINE)
+            appendLines(output, text, start, end, ansiCode);
+        else
+            appendText(output, text, start, end);
+        if (policy != ResetPolicy.NONE)
+            output.append(RESET);
+    }
+
+    /**
+     * Appends the text, between start and end, in a single pass. Each line needs to end the current
+     * format (RESET) and start it on the next line. This avoids spilling, ie. a long line without text
+     * but formatted background. Line breaks (\n, \r\n or \r) are kept as they are.
+     */
+    static void appendLines(Appendable output, CharSequence text, int start, int end, String ansiCode)
+            throws IOException {
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && c != '\r')
+                continue;
+
+            appendText(output, text, lineStart, i);
+            output.append(RESET);
+            int lineBreakStart = i;
+            if (c == '\r' && i + 1 < end && text.charAt(i + 1) == '\n')
+                i++;
+            appendText(output, text, lineBreakStart, i + 1);
+            output.append(ansiCode);
+            lineStart = i + 1;
+        }
+        appendText(output, text, lineStart, end);
+    }
+
+    /**
+     * Formats the end of the output, from start, like {@link #appendLines}. The output grows once, and its
+     * chars are moved from the last to the first, so each char is copied only once.
+     */
+    static void colorizeInPlace(StringBuilder output, int start, String ansiCode) {
+        if (isColorOff())
+            return;
+        int end = output.length();
+        int lineBreaks = countLineBreaks(output, start, end);
+        if (lineBreaks == 0) {
+            output.insert(start, ansiCode).append(RESET);
+            return;
+        }
+
+        output.setLength(end + ansiCode.length() + lineBreaks * (RESET.length() + ansiCode.length()) + RESET.length());
+        int position = moveBack(RESET, output, output.length());
+        for (int i = end - 1; i >= start; i--) {
+            char c = output.charAt(i);
+            if (c != '\n' && c != '\r') {
+                output.setCharAt(--position, c);
+                continue;
+            }
+            position = moveBack(ansiCode, output, position);
+            output.setCharAt(--position, c);
+            if (c == '\n' && i > start && output.charAt(i - 1) == '\r')
+                output.setCharAt(--position, output.charAt(--i));
+            position = moveBack(RESET, output, position);
+        }
+        moveBack(ansiCode, output, position);
+    }
+
+    // Writes the text into the output, so that it ends before the position, and returns where it starts
+    private static int moveBack(String text, StringBuilder output, int position) {
+        for (int i = text.length() - 1; i >= 0; i--)
+            output.setCharAt(--position, text.charAt(i));
+        return position;
+    }
+
+    /**
+     * Appends the text, between start and end. Writers and CharBuffers copy the slice of a String
+     * directly, because their append(CharSequence, int, int) would create a String with that slice first.
+     */
+    static void appendText(Appendable output, CharSequence text, int start, int end) throws IOException {
+        if (start == end)
+            return;
+        if (text instanceof String) {
+            if (output instanceof Writer) {
+                ((Writer) output).write((String) text, start, end - start);
+                return;
+            }
+            if (output instanceof CharBuffer) {
+                ((CharBuffer) output).put((String) text, start, end);
+                return;
+            }
+        }
+        output.append(text, start, end);
     }
 
     /**
@@ -103,6 +416,8 @@ public class Ansi {
      * @return The formatted string, ready to be printed.
      */
     public static String colorize(String text, Attribute... attributes) {
+        if (isColorOff())
+            return text;
         String ansiCode = generateCode(attributes);
         return colorize(text, ansiCode);
     }
@@ -113,7 +428,31 @@ public class Ansi {
      * @return The formatted string, ready to be printed.
      */
     public static String colorize(String text, AnsiFormat attributes) {
-        return colorize(text, attributes.toArray());
+        return attributes.format(text);
+    }
+
+    /**
+     * Measures how many columns a line of text uses when it is printed, e.g. to align colored tables.
+     * Escape sequences are skipped, East Asian wide chars and emoji count as 2 columns, and combining
+     * chars (e.g. accents) count as 0. It does not create any object.
+     *
+     * @param text A line of text, which may contain ANSI escape sequences.
+     * @return The width of the text as printed by a terminal.
+     */
+    public static int visibleWidth(CharSequence text) {
+        int width = 0, state = AnsiStripper.TEXT, length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            state = AnsiStripper.next(state, c);
+            if (state != AnsiStripper.TEXT)
+                continue;
+
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1)))
+                codePoint = Character.toCodePoint(c, text.charAt(++i));
+            width += CharWidth.of(codePoint);
+        }
+        return width;
     }
 
     /**
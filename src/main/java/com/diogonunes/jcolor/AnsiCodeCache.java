@@ -0,0 +1,142 @@
+package com.diogonunes.jcolor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the ANSI codes generated for the most recently used combinations of attributes, e.g. when
+ * colors are computed for each value with TEXT_COLOR(r, g, b) but only a few hundred of them occur.
+ * When it is full, the least recently used code is dropped. It is safe to use by several threads.
+ * <p>
+ * It is opt-in, see {@link Ansi#setCodeCache(AnsiCodeCache)}. Use the hit and miss counters to size it.
+ * An {@link AnsiFormat} does not need it, because it generates its code only once.
+ */
+public final class AnsiCodeCache {
+
+    private final int _maxSize;
+    private final Map<Key, String> _codes;
+    private long _hits = 0;
+    private long _misses = 0;
+
+    /**
+     * @param maxSize How many codes it keeps, at most.
+     */
+    public AnsiCodeCache(int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Cache size must be positive. Received: " + maxSize);
+        _maxSize = maxSize;
+        _codes = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > _maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param mode       How many colors the terminal supports.
+     * @param attributes ANSI attributes to format a text.
+     * @return The ANSI code that describes all those attributes together, generated once.
+     */
+    String getCode(ColorMode mode, Attribute... attributes) {
+        Key key = new Key(mode, attributes);
+        synchronized (_codes) {
+            String code = _codes.get(key);
+            if (code != null) {
+                _hits++;
+                return code;
+            }
+            _misses++;
+        }
+
+        // the code is generated outside the lock, so a race only generates the same code twice
+        String code = Ansi.renderCode(mode, attributes);
+        // the key is copied, because the caller may change its array afterwards
+        Key storedKey = new Key(mode, attributes.clone());
+        synchronized (_codes) {
+            _codes.put(storedKey, code);
+        }
+        return code;
+    }
+
+    /**
+     * @return How many codes it keeps, at most.
+     */
+    public int getMaxSize() {
+        return _maxSize;
+    }
+
+    /**
+     * @return How many codes it keeps now.
+     */
+    public int size() {
+        synchronized (_codes) {
+            return _codes.size();
+        }
+    }
+
+    /**
+     * @return How many codes were found in the cache.
+     */
+    public long getHits() {
+        synchronized (_codes) {
+            return _hits;
+        }
+    }
+
+    /**
+     * @return How many codes were not in the cache, and were generated.
+     */
+    public long getMisses() {
+        synchronized (_codes) {
+            return _misses;
+        }
+    }
+
+    /**
+     * Drops every code, and resets the counters.
+     */
+    public void clear() {
+        synchronized (_codes) {
+            _codes.clear();
+            _hits = 0;
+            _misses = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (_codes) {
+            return String.format("AnsiCodeCache[size=%d/%d, hits=%d, misses=%d]", _codes.size(), _maxSize, _hits, _misses);
+        }
+    }
+
+    /**
+     * A combination of attributes, in a color mode.
+     */
+    private static final class Key {
+        private final ColorMode _mode;
+        private final Attribute[] _attributes;
+        private final int _hash;
+
+        private Key(ColorMode mode, Attribute[] attributes) {
+            _mode = mode;
+            _attributes = attributes;
+            _hash = 31 * mode.hashCode() + Arrays.hashCode(attributes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key))
+                return false;
+            Key key = (Key) other;
+            return _hash == key._hash && _mode == key._mode && Arrays.equals(_attributes, key._attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+    }
+}
@@ -1,22 +1,51 @@
 package com.diogonunes.jcolor;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Abstracts an Array of {@link Attribute}s.
  * Use it if you find this more readable than Attribute[].
+ * <p>
+ * A format is immutable: its ANSI code is generated once, when it is created, and then reused by every
+ * {@link #format(String)}. Reuse the same instance instead of creating a new one for each message.
+ * If the {@link ColorMode} changes, the code for the new mode is generated once, the first time it is used.
+ * <p>
+ * Two formats are equal if they have equal attributes in the same order, so they can be used as keys of a map.
  */
 public class AnsiFormat {
 
-    // Starts with capacity=2 because that's how many attributes are used on average
-    private final ArrayList<Attribute> _attributes = new ArrayList<>(2);
+    private static final int COLOR_MODES = ColorMode.values().length;
+
+    private final Attribute[] _attributes;
+    // Code for each ColorMode, generated when the mode is first used
+    private final Code[] _codes = new Code[COLOR_MODES];
+    // Packed style of the attributes, created when it is first used
+    private Style _style;
+    private int _hash;
 
     /**
      * @param attributes All ANSI attributes to format a text.
      */
     public AnsiFormat(Attribute... attributes) {
-        _attributes.addAll(Arrays.asList(attributes));
+        _attributes = attributes.clone();
+        getCompiledCode();
+    }
+
+    /**
+     * Creates a format from the names of its attributes, e.g. from a configuration file. Names are those of the
+     * {@link Attribute} factories, case-insensitive, and "_text" can be left out, e.g. "bold, red" or
+     * "text_color(255, 0, 0), back_color(17)".
+     *
+     * @param names Names of attributes, separated by commas.
+     * @return The format with those attributes, in the same order.
+     * @throws IllegalArgumentException If a name is unknown, or a color is invalid.
+     */
+    public static AnsiFormat parse(String names) {
+        return new AnsiFormat(AttributeNames.parse(names));
     }
 
     /**
@@ -24,10 +53,231 @@ public class AnsiFormat {
      * @return The formatted string, ready to be printed.
      */
     public String format(String text) {
-        return Ansi.colorize(text, this.toArray());
+        return Ansi.colorize(text, getCode());
+    }
+
+    /**
+     * @param text   String to format.
+     * @param policy Where the format is reset, e.g. on each line.
+     * @return The formatted string, ready to be printed.
+     */
+    public String format(String text, ResetPolicy policy) {
+        return Ansi.colorize(text, getCode(), policy);
+    }
+
+    /**
+     * Formats a slice of the text, without copying it first. To format a slice of a char[], wrap it
+     * with {@link java.nio.CharBuffer#wrap(char[])}.
+     *
+     * @param text  Text that contains the slice to format.
+     * @param start Index of the first char of the slice.
+     * @param end   Index after the last char of the slice.
+     * @return The formatted slice, ready to be printed.
+     */
+    public String format(CharSequence text, int start, int end) {
+        Ansi.checkRange(text, start, end);
+        String code = getCode();
+        StringBuilder output = new StringBuilder(Ansi.colorizedLength(text, start, end, code, ResetPolicy.EACH_LINE));
+        Ansi.appendColorized(output, text, start, end, code, ResetPolicy.EACH_LINE);
+        return output.toString();
+    }
+
+    /**
+     * Writes the formatted text straight into the output, without creating an intermediate String.
+     *
+     * @param output Where the formatted text is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @param text   Text to format.
+     * @throws IOException If the output fails to append the formatted text.
+     */
+    public void formatTo(Appendable output, CharSequence text) throws IOException {
+        Ansi.appendColorized(output, text, 0, text.length(), getCode(), ResetPolicy.EACH_LINE);
+    }
+
+    /**
+     * Appends the formatted text straight into the output, without creating an intermediate String.
+     *
+     * @param output Where the formatted text is appended to.
+     * @param text   Text to format.
+     */
+    public void formatTo(StringBuilder output, CharSequence text) {
+        Ansi.appendColorized(output, text, 0, text.length(), getCode(), ResetPolicy.EACH_LINE);
+    }
+
+    /**
+     * Writes a formatted slice of the text straight into the output, without copying the slice first.
+     *
+     * @param output Where the formatted slice is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @param text   Text that contains the slice to format.
+     * @param start  Index of the first char of the slice.
+     * @param end    Index after the last char of the slice.
+     * @throws IOException If the output fails to append the formatted slice.
+     */
+    public void formatTo(Appendable output, CharSequence text, int start, int end) throws IOException {
+        Ansi.checkRange(text, start, end);
+        Ansi.appendColorized(output, text, start, end, getCode(), ResetPolicy.EACH_LINE);
+    }
+
+    /**
+     * Appends a formatted slice of the text straight into the output, without copying the slice first.
+     *
+     * @param output Where the formatted slice is appended to.
+     * @param text   Text that contains the slice to format.
+     * @param start  Index of the first char of the slice.
+     * @param end    Index after the last char of the slice.
+     */
+    public void formatTo(StringBuilder output, CharSequence text, int start, int end) {
+        Ansi.checkRange(text, start, end);
+        Ansi.appendColorized(output, text, start, end, getCode(), ResetPolicy.EACH_LINE);
+    }
+
+    /**
+     * Formats the text at the end of the output, without copying it elsewhere first, e.g. the text that a
+     * logging framework has just appended. The result is the same as {@link #formatTo(StringBuilder, CharSequence)}.
+     *
+     * @param output Where the text to format was appended to.
+     * @param start  Index of the first char to format. The text ends at the end of the output.
+     */
+    public void formatInPlace(StringBuilder output, int start) {
+        Ansi.checkRange(output, start, output.length());
+        Ansi.colorizeInPlace(output, start, getCode());
+    }
+
+    /**
+     * Formats a large text, e.g. a report of hundreds of MB, on several threads. The output is the same
+     * as {@link #format(String)}. Small texts, or texts with few lines, are formatted on this thread.
+     *
+     * @param text Text to format.
+     * @return The formatted text, ready to be printed.
+     */
+    public String formatParallel(CharSequence text) {
+        return ParallelColorizer.format(text, getCode());
+    }
+
+    /**
+     * Formats a large text on several threads, and writes it to the output in order, as each part is ready.
+     * The output is the same as {@link #formatTo(Appendable, CharSequence)}.
+     *
+     * @param output Where the formatted text is written to, e.g. a Writer.
+     * @param text   Text to format.
+     * @throws IOException If the output fails to append the formatted text.
+     */
+    public void formatParallelTo(Appendable output, CharSequence text) throws IOException {
+        ParallelColorizer.formatTo(output, text, getCode());
+    }
+
+    /**
+     * Formats each line of a stream, e.g. from Files.lines(). The code is generated once, when this is called,
+     * and lines are formatted lazily, as the stream is consumed.
+     *
+     * @param lines Lines to format.
+     * @return The formatted lines, ready to be printed.
+     */
+    public Stream<String> formatLines(Stream<String> lines) {
+        if (Ansi.isColorOff())
+            return lines;
+        String code = getCode();
+        return lines.map(line -> Ansi.colorize(line, code));
+    }
+
+    /**
+     * Splits a text into lines, without line breaks (\n, \r\n or \r), and formats each one. Lines are formatted
+     * lazily, as the stream is consumed, and the stream can be made parallel, because it splits well.
+     *
+     * @param text Text to split into lines.
+     * @return The formatted lines, ready to be printed.
+     */
+    public Stream<String> lines(CharSequence text) {
+        String code = Ansi.isColorOff() ? null : getCode();
+        return StreamSupport.stream(new LineSpliterator(text, code, 0, text.length()), false);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (other == null || getClass() != other.getClass())
+            return false;
+        AnsiFormat format = (AnsiFormat) other;
+        return hashCode() == format.hashCode() && Arrays.equals(_attributes, format._attributes);
+    }
+
+    /**
+     * The hash is computed once, when it is first used, because a format is immutable.
+     */
+    @Override
+    public int hashCode() {
+        int hash = _hash;
+        if (hash == 0) {
+            hash = Arrays.hashCode(_attributes);
+            _hash = hash;
+        }
+        return hash;
     }
 
     protected Attribute[] toArray() {
-        return _attributes.toArray(new Attribute[0]);
+        return _attributes.clone();
+    }
+
+    /**
+     * @return The packed style of this format's attributes.
+     * @throws IllegalArgumentException If an attribute does not describe a format, see {@link Style#of(Attribute...)}.
+     */
+    Style getStyle() {
+        Style style = _style;
+        if (style == null) {
+            // a race only creates the same style twice, because a Style is immutable
+            style = Style.of(_attributes);
+            _style = style;
+        }
+        return style;
+    }
+
+    /**
+     * @return The ANSI code that describes all attributes of this format together, in the current color mode.
+     */
+    String getCode() {
+        return getCompiledCode()._text;
+    }
+
+    /**
+     * @param mode How many colors the terminal supports.
+     * @return The ANSI code that describes all attributes of this format together, in that color mode.
+     */
+    String getCode(ColorMode mode) {
+        return getCompiledCode(mode)._text;
+    }
+
+    /**
+     * @return The ANSI code of this format, encoded as ASCII.
+     */
+    byte[] getCodeBytes() {
+        return getCompiledCode()._bytes;
+    }
+
+    private Code getCompiledCode() {
+        return getCompiledCode(Ansi.getColorMode());
+    }
+
+    private Code getCompiledCode(ColorMode mode) {
+        Code code = _codes[mode.ordinal()];
+        if (code == null) {
+            // a race only generates the same code twice, because a Code is immutable
+            code = new Code(Ansi.renderCode(mode, _attributes));
+            _codes[mode.ordinal()] = code;
+        }
+        return code;
+    }
+
+    /**
+     * The ANSI code of a format, as text and as bytes.
+     */
+    private static final class Code {
+        private final String _text;
+        private final byte[] _bytes;
+
+        private Code(String text) {
+            _text = text;
+            _bytes = text.getBytes(StandardCharsets.US_ASCII);
+        }
     }
 }
@@ -0,0 +1,257 @@
+package com.diogonunes.jcolor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Colors each char of a text with a gradient between colors, e.g. for banners and progress bars.
+ * The codes of a given width are computed once and reused, e.g. for each frame of a progress bar,
+ * and only the codes where the color changes are written, without a RESET for each char.
+ * <p>
+ * Colors are RGB numbers, e.g. 0xFF0000 for red. Each line of the text has the same gradient, which spans
+ * the longest line, so that the colors of a banner are aligned. Colors are mapped to the current
+ * {@link ColorMode}, so consecutive chars that get the same color do not repeat its code.
+ */
+public final class AnsiGradient {
+
+    /**
+     * Where colors are mixed.
+     */
+    public enum Space {
+        /**
+         * Mixes the red, green and blue components.
+         */
+        RGB,
+        /**
+         * Mixes colors as they are perceived, so the gradient has no dull or too bright parts.
+         * See <a href="https://bottosson.github.io/posts/oklab/">Oklab</a>.
+         */
+        OKLAB
+    }
+
+    private static final int[] RAINBOW = {0xFF0000, 0xFFFF00, 0x00FF00, 0x00FFFF, 0x0000FF, 0xFF00FF};
+
+    private final Space _space;
+    private final int[] _colors;
+    private final boolean _isBackground;
+    // Codes of the last width used, which is usually the same for every call
+    private volatile Table _table;
+
+    private AnsiGradient(Space space, int[] colors, boolean isBackground) {
+        if (colors.length < 2)
+            throw new IllegalArgumentException("A gradient needs at least 2 colors. Received: " + colors.length);
+        for (int color : colors)
+            if ((color & ~0xFFFFFF) != 0)
+                throw new IllegalArgumentException(String.format("Color must be an RGB number. Received: %#x", color));
+        _space = space;
+        _colors = colors;
+        _isBackground = isBackground;
+    }
+
+    /**
+     * @param colors RGB numbers of the colors, in order, e.g. 0xFF0000 for red. They are evenly spaced.
+     * @return A gradient of the text color, mixed in RGB.
+     */
+    public static AnsiGradient of(int... colors) {
+        return of(Space.RGB, colors);
+    }
+
+    /**
+     * @param space  Where colors are mixed.
+     * @param colors RGB numbers of the colors, in order, e.g. 0xFF0000 for red. They are evenly spaced.
+     * @return A gradient of the text color.
+     */
+    public static AnsiGradient of(Space space, int... colors) {
+        return new AnsiGradient(space, colors.clone(), false);
+    }
+
+    /**
+     * @return A gradient of the text color, through every hue.
+     */
+    public static AnsiGradient rainbow() {
+        return new AnsiGradient(Space.RGB, RAINBOW, false);
+    }
+
+    /**
+     * @return The same gradient, but of the background color.
+     */
+    public AnsiGradient onBackground() {
+        return new AnsiGradient(_space, _colors, true);
+    }
+
+    /**
+     * @param text Text to color.
+     * @return The colored text, ready to be printed.
+     */
+    public String apply(CharSequence text) {
+        // Sized for a code every few chars
+        StringBuilder output = new StringBuilder(4 * text.length() + Ansi.RESET.length());
+        applyTo(output, text);
+        return output.toString();
+    }
+
+    /**
+     * @param output Where the colored text is appended to.
+     * @param text   Text to color.
+     */
+    public void applyTo(StringBuilder output, CharSequence text) {
+        try {
+            applyTo((Appendable) output, text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // never happens, a StringBuilder does not throw it
+        }
+    }
+
+    /**
+     * @param output Where the colored text is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @param text   Text to color.
+     * @throws IOException If the output fails to append the colored text.
+     */
+    public void applyTo(Appendable output, CharSequence text) throws IOException {
+        if (Ansi.isColorOff()) {
+            Ansi.appendText(output, text, 0, text.length());
+            return;
+        }
+
+        String[] codes = getCodes(longestLine(text));
+        String lastCode = null; // null at the start of each line
+        int column = 0, length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                if (lastCode != null)
+                    output.append(Ansi.RESET);
+                output.append(c);
+                lastCode = null;
+                column = 0;
+                continue;
+            }
+
+            String code = codes[column];
+            if (code != lastCode) // equal codes are the same instance
+                output.append(code);
+            lastCode = code;
+            output.append(c);
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1)))
+                output.append(text.charAt(++i));
+            column++;
+        }
+        if (lastCode != null)
+            output.append(Ansi.RESET);
+    }
+
+    /**
+     * @param width How many chars the gradient spans.
+     * @return The code of each char, in the current color mode. Consecutive equal codes are the same instance.
+     */
+    String[] getCodes(int width) {
+        ColorMode mode = Ansi.getColorMode();
+        Table table = _table;
+        if (table == null || table._width != width || table._mode != mode) {
+            // a race only computes the same table twice, because a Table is immutable
+            table = new Table(width, mode, computeCodes(width, mode));
+            _table = table;
+        }
+        return table._codes;
+    }
+
+    private String[] computeCodes(int width, ColorMode mode) {
+        String[] codes = new String[width];
+        for (int i = 0; i < width; i++) {
+            int rgb = colorAt((width == 1) ? 0 : (double) i / (width - 1));
+            int r = (rgb >> 16) & 0xFF, g = (rgb >> 8) & 0xFF, b = rgb & 0xFF;
+            Attribute color = _isBackground ? Attribute.BACK_COLOR(r, g, b) : Attribute.TEXT_COLOR(r, g, b);
+            String code = Ansi.renderCode(mode, color);
+            codes[i] = (i > 0 && code.equals(codes[i - 1])) ? codes[i - 1] : code;
+        }
+        return codes;
+    }
+
+    /**
+     * @param position Where the color is, from 0 (first color) to 1 (last color).
+     * @return The RGB number of the color at that position.
+     */
+    private int colorAt(double position) {
+        double scaled = position * (_colors.length - 1);
+        int stop = Math.min((int) scaled, _colors.length - 2);
+        double t = scaled - stop;
+        int from = _colors[stop], to = _colors[stop + 1];
+        if (_space == Space.OKLAB)
+            return mixOklab(from, to, t);
+        return rgb(mix(from >> 16 & 0xFF, to >> 16 & 0xFF, t),
+                mix(from >> 8 & 0xFF, to >> 8 & 0xFF, t),
+                mix(from & 0xFF, to & 0xFF, t));
+    }
+
+    private static int mixOklab(int from, int to, double t) {
+        double[] a = toOklab(from), b = toOklab(to);
+        double l = a[0] + (b[0] - a[0]) * t, m = a[1] + (b[1] - a[1]) * t, s = a[2] + (b[2] - a[2]) * t;
+        return fromOklab(l, m, s);
+    }
+
+    private static double[] toOklab(int rgb) {
+        double r = linear(rgb >> 16 & 0xFF), g = linear(rgb >> 8 & 0xFF), b = linear(rgb & 0xFF);
+        double l = Math.cbrt(0.4122214708 * r + 0.5363325363 * g + 0.0514459929 * b);
+        double m = Math.cbrt(0.2119034982 * r + 0.6806995451 * g + 0.1073969566 * b);
+        double s = Math.cbrt(0.0883024619 * r + 0.2817188376 * g + 0.6299787005 * b);
+        return new double[]{
+                0.2104542553 * l + 0.7936177850 * m - 0.0040720468 * s,
+                1.9779984951 * l - 2.4285922050 * m + 0.4505937099 * s,
+                0.0259040371 * l + 0.7827717662 * m - 0.8086757660 * s};
+    }
+
+    private static int fromOklab(double lightness, double a, double b) {
+        double l = Math.pow(lightness + 0.3963377774 * a + 0.2158037573 * b, 3);
+        double m = Math.pow(lightness - 0.1055613458 * a - 0.0638541728 * b, 3);
+        double s = Math.pow(lightness - 0.0894841775 * a - 1.2914855480 * b, 3);
+        return rgb(gamma(4.0767416621 * l - 3.3077115913 * m + 0.2309699292 * s),
+                gamma(-1.2684380046 * l + 2.6097574011 * m - 0.3413193965 * s),
+                gamma(-0.0041960863 * l - 0.7034186147 * m + 1.7076147010 * s));
+    }
+
+    private static double linear(int component) {
+        double c = component / 255.0;
+        return (c <= 0.04045) ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+    private static int gamma(double linear) {
+        double c = (linear <= 0.0031308) ? 12.92 * linear : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+        return (int) Math.round(Math.max(0, Math.min(1, c)) * 255);
+    }
+
+    private static int mix(int from, int to, double t) {
+        return (int) Math.round(from + (to - from) * t);
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return (r << 16) | (g << 8) | b;
+    }
+
+    // How many chars (code points) the longest line has
+    private static int longestLine(CharSequence text) {
+        int longest = 0, column = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r')
+                column = 0;
+            else if (!Character.isLowSurrogate(c) || i == 0 || !Character.isHighSurrogate(text.charAt(i - 1)))
+                longest = Math.max(longest, ++column);
+        }
+        return longest;
+    }
+
+    /**
+     * The codes of a width, in a color mode.
+     */
+    private static final class Table {
+        private final int _width;
+        private final ColorMode _mode;
+        private final String[] _codes;
+
+        private Table(int width, ColorMode mode, String[] codes) {
+            _width = width;
+            _mode = mode;
+            _codes = codes;
+        }
+    }
+}
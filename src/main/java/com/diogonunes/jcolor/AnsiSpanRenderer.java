@@ -0,0 +1,222 @@
+package com.diogonunes.jcolor;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes consecutive spans of text, each with its own format, e.g. the cells of a colored table.
+ * Instead of starting and resetting the whole format for each span, like {@link Ansi#colorize(String, AnsiFormat)},
+ * it only writes what changes between spans: the effects that end are turned off, and only the colors
+ * that change are set. If resetting the format and starting the next one is shorter, it does that instead.
+ * The output looks the same, but it is much smaller.
+ * <p>
+ * Like a formatted text, the format is reset before each line break and started again on the next line.
+ * Call {@link #end()} after the last span, to reset the format. If the {@link ColorMode} is OFF when
+ * the renderer is created, text is written as it is.
+ */
+public class AnsiSpanRenderer {
+
+    // Transitions are kept per renderer, and dropped when there are too many, e.g. a gradient
+    private static final int MAX_TRANSITIONS = 1024;
+    // Twice as many slots as transitions, so that probes stay short
+    private static final int SLOT_BITS = 11;
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private Appendable _output;
+    private final ColorMode _mode;
+    /*
+     * Open-addressed table of transitions, so that finding one does not allocate a key. Slot i holds the code
+     * _codes[i], of the transition whose styles are packed in _keys[4i] to _keys[4i + 3], or nothing if null.
+     */
+    private final long[] _keys = new long[4 * SLOTS];
+    private final String[] _codes = new String[SLOTS];
+    private int _transitionCount = 0;
+    // The last transition, found without probing the table, e.g. between the two styles of a repeated pattern
+    private Style _lastFrom, _lastTo;
+    private String _lastCode;
+    // Style that the terminal has now, or null if it is unknown
+    private Style _current = Style.DEFAULT;
+
+    /**
+     * Constructor.
+     *
+     * @param output Where the spans are written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     */
+    public AnsiSpanRenderer(Appendable output) {
+        _output = output;
+        _mode = Ansi.getColorMode();
+    }
+
+    /**
+     * @param text Text of the span, without format.
+     * @return This renderer, to append the next span.
+     * @throws IOException If the output fails to append the span.
+     */
+    public AnsiSpanRenderer append(CharSequence text) throws IOException {
+        return append(text, 0, text.length(), Style.DEFAULT, null);
+    }
+
+    /**
+     * @param text   Text of the span.
+     * @param format Object containing format attributes.
+     * @return This renderer, to append the next span.
+     * @throws IOException If the output fails to append the span.
+     */
+    public AnsiSpanRenderer append(CharSequence text, AnsiFormat format) throws IOException {
+        return append(text, 0, text.length(), format);
+    }
+
+    /**
+     * Appends a slice of the text as a span, without copying it first.
+     *
+     * @param text   Text that contains the slice.
+     * @param start  Index of the first char of the slice.
+     * @param end    Index after the last char of the slice.
+     * @param format Object containing format attributes.
+     * @return This renderer, to append the next span.
+     * @throws IOException If the output fails to append the span.
+     */
+    public AnsiSpanRenderer append(CharSequence text, int start, int end, AnsiFormat format) throws IOException {
+        Ansi.checkRange(text, start, end);
+        return append(text, start, end, styleOf(format), format);
+    }
+
+    /**
+     * Resets the format, if the last span had one. The renderer can still be used afterwards.
+     *
+     * @throws IOException If the output fails to append the reset.
+     */
+    public void end() throws IOException {
+        if (_current != Style.DEFAULT) {
+            _output.append(Ansi.RESET);
+            _current = Style.DEFAULT;
+        }
+    }
+
+    ColorMode getColorMode() {
+        return _mode;
+    }
+
+    /**
+     * Starts writing to another output, keeping the transitions that were already rendered.
+     */
+    void setOutput(Appendable output) {
+        _output = output;
+        _current = Style.DEFAULT;
+    }
+
+    /**
+     * Appends a span with a style. If the style is null, the format can't be diffed and its code is used as it is.
+     */
+    AnsiSpanRenderer append(CharSequence text, int start, int end, Style style, AnsiFormat format)
+            throws IOException {
+        if (_mode == ColorMode.OFF) {
+            Ansi.appendText(_output, text, start, end);
+            return this;
+        }
+
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && c != '\r')
+                continue;
+
+            if (lineStart < i) {
+                switchTo(style, format);
+                Ansi.appendText(_output, text, lineStart, i);
+            }
+            end(); // avoids spilling the format, like Ansi.colorize
+            _output.append(c);
+            lineStart = i + 1;
+        }
+        if (lineStart < end) {
+            switchTo(style, format);
+            Ansi.appendText(_output, text, lineStart, end);
+        }
+        return this;
+    }
+
+    private void switchTo(Style style, AnsiFormat format) throws IOException {
+        if (style == null) {
+            end();
+            _output.append(format.getCode(_mode));
+            _current = null;
+            return;
+        }
+        if (style.equals(_current))
+            return;
+        if (_current == null)
+            end();
+        if (!style.equals(_current))
+            _output.append(getTransition(_current, style));
+        _current = style;
+    }
+
+    private String getTransition(Style from, Style to) {
+        if (from.equals(_lastFrom) && to.equals(_lastTo))
+            return _lastCode;
+
+        long fromEffects = from.getEffects(), fromColors = from.getColors();
+        long toEffects = to.getEffects(), toColors = to.getColors();
+        int slot = slotOf(fromEffects, fromColors, toEffects, toColors);
+        while (_codes[slot] != null) {
+            int key = 4 * slot;
+            if (_keys[key] == fromEffects && _keys[key + 1] == fromColors
+                    && _keys[key + 2] == toEffects && _keys[key + 3] == toColors)
+                return remember(from, to, _codes[slot]);
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+
+        String code = renderTransition(from, to);
+        if (_transitionCount >= MAX_TRANSITIONS) {
+            Arrays.fill(_codes, null);
+            _transitionCount = 0;
+            slot = slotOf(fromEffects, fromColors, toEffects, toColors);
+        }
+        int key = 4 * slot;
+        _keys[key] = fromEffects;
+        _keys[key + 1] = fromColors;
+        _keys[key + 2] = toEffects;
+        _keys[key + 3] = toColors;
+        _codes[slot] = code;
+        _transitionCount++;
+        return remember(from, to, code);
+    }
+
+    private String remember(Style from, Style to, String code) {
+        _lastFrom = from;
+        _lastTo = to;
+        _lastCode = code;
+        return code;
+    }
+
+    private static int slotOf(long fromEffects, long fromColors, long toEffects, long toColors) {
+        long hash = ((fromEffects * 31 + fromColors) * 31 + toEffects) * 31 + toColors;
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> (64 - SLOT_BITS));
+    }
+
+    // Either the changes only, or a reset followed by the whole format, whichever is shorter
+    private String renderTransition(Style from, Style to) {
+        String diff = Ansi.renderCode(_mode, from.diff(to));
+        if (from == Style.DEFAULT)
+            return diff;
+
+        Attribute[] toAttributes = to.toAttributes();
+        Attribute[] resetAttributes = new Attribute[toAttributes.length + 1];
+        resetAttributes[0] = Attribute.CLEAR();
+        System.arraycopy(toAttributes, 0, resetAttributes, 1, toAttributes.length);
+        String reset = Ansi.renderCode(_mode, resetAttributes);
+        return (reset.length() <= diff.length()) ? reset : diff;
+    }
+
+    /**
+     * @return The style of the format, or null if it can't be packed.
+     */
+    static Style styleOf(AnsiFormat format) {
+        try {
+            return format.getStyle();
+        } catch (IllegalArgumentException e) {
+            return null; // e.g. a custom attribute, which can't be diffed
+        }
+    }
+}
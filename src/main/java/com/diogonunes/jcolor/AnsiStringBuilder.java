@@ -0,0 +1,198 @@
+package com.diogonunes.jcolor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Builds a line (or a whole text) out of spans with different formats, and formats it only once, at the end.
+ * Instead of a String for each formatted span, it keeps all the text in one buffer and where each format
+ * starts and ends. Consecutive spans are written by {@link AnsiSpanRenderer}, so only what changes
+ * between them is written.
+ * <p>
+ * Formats can be nested: after {@link #push(AnsiFormat)}, every span also has that format, until {@link #pop()}.
+ * {@link #reset()} empties the builder but keeps its buffers, so a builder reused for each line (e.g. one per
+ * thread) does not create any garbage. It is not safe to use by several threads.
+ */
+public class AnsiStringBuilder {
+
+    private static final int INITIAL_RUNS = 16;
+
+    private final StringBuilder _text;
+    // Each run is a span of the text with a single format: it ends at _runEnds[i], and it has _runStyles[i]
+    private int[] _runEnds = new int[INITIAL_RUNS];
+    private Style[] _runStyles = new Style[INITIAL_RUNS];
+    // Format of a run whose style is null, because it can't be packed (e.g. a custom attribute)
+    private AnsiFormat[] _runFormats = new AnsiFormat[INITIAL_RUNS];
+    private int _runCount = 0;
+    // Styles pushed by push(), merged with the ones below them
+    private Style[] _stack = new Style[INITIAL_RUNS];
+    private int _stackSize = 0;
+    private AnsiSpanRenderer _renderer;
+
+    public AnsiStringBuilder() {
+        this(64);
+    }
+
+    /**
+     * @param capacity How many chars of text it holds before growing.
+     */
+    public AnsiStringBuilder(int capacity) {
+        _text = new StringBuilder(capacity);
+    }
+
+    /**
+     * @param text Text to append, with the format pushed last (if any).
+     * @return This builder.
+     */
+    public AnsiStringBuilder append(CharSequence text) {
+        _text.append(text);
+        addRun(currentStyle(), null);
+        return this;
+    }
+
+    /**
+     * @param text   Text to append.
+     * @param format Object containing format attributes. It is added to the format pushed last (if any).
+     * @return This builder.
+     */
+    public AnsiStringBuilder append(CharSequence text, AnsiFormat format) {
+        Style style = AnsiSpanRenderer.styleOf(format);
+        _text.append(text);
+        if (style == null)
+            addRun(null, format);
+        else
+            addRun(_stackSize == 0 ? style : currentStyle().merge(style), null);
+        return this;
+    }
+
+    /**
+     * Every span appended after this one also has this format, until it is popped.
+     *
+     * @param format Object containing format attributes.
+     * @return This builder.
+     * @throws IllegalArgumentException If the format has custom attributes, which can't be nested.
+     */
+    public AnsiStringBuilder push(AnsiFormat format) {
+        Style style = format.getStyle();
+        if (_stackSize == _stack.length)
+            _stack = Arrays.copyOf(_stack, 2 * _stack.length);
+        _stack[_stackSize] = currentStyle().merge(style);
+        _stackSize++;
+        return this;
+    }
+
+    /**
+     * Ends the format pushed last.
+     *
+     * @return This builder.
+     * @throws IllegalStateException If there is no format to pop.
+     */
+    public AnsiStringBuilder pop() {
+        if (_stackSize == 0)
+            throw new IllegalStateException("There is no format to pop");
+        _stackSize--;
+        _stack[_stackSize] = null;
+        return this;
+    }
+
+    /**
+     * @return How many chars of text it has, without ANSI codes.
+     */
+    public int length() {
+        return _text.length();
+    }
+
+    /**
+     * Empties the builder, and its pushed formats, but keeps its buffers to be reused.
+     *
+     * @return This builder.
+     */
+    public AnsiStringBuilder reset() {
+        _text.setLength(0);
+        Arrays.fill(_runFormats, 0, _runCount, null);
+        _runCount = 0;
+        Arrays.fill(_stack, 0, _stackSize, null);
+        _stackSize = 0;
+        return this;
+    }
+
+    /**
+     * Writes the formatted text, in a single pass.
+     *
+     * @param output Where the formatted text is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @throws IOException If the output fails to append the formatted text.
+     */
+    public void renderTo(Appendable output) throws IOException {
+        AnsiSpanRenderer renderer = getRenderer(output);
+        int runStart = 0;
+        for (int i = 0; i < _runCount; i++) {
+            renderer.append(_text, runStart, _runEnds[i], _runStyles[i], _runFormats[i]);
+            runStart = _runEnds[i];
+        }
+        renderer.end();
+    }
+
+    /**
+     * Appends the formatted text, in a single pass.
+     *
+     * @param output Where the formatted text is appended to.
+     */
+    public void renderTo(StringBuilder output) {
+        try {
+            renderTo((Appendable) output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // never happens, a StringBuilder does not throw it
+        }
+    }
+
+    /**
+     * @return The formatted text, ready to be printed.
+     */
+    @Override
+    public String toString() {
+        // Sized for the text and a short code for each run
+        StringBuilder output = new StringBuilder(_text.length() + 8 * _runCount + Ansi.RESET.length());
+        renderTo(output);
+        return output.toString();
+    }
+
+    private Style currentStyle() {
+        return (_stackSize == 0) ? Style.DEFAULT : _stack[_stackSize - 1];
+    }
+
+    // Adds a run up to the end of the text, or extends the last run if it has the same format
+    private void addRun(Style style, AnsiFormat format) {
+        int end = _text.length();
+        int start = (_runCount == 0) ? 0 : _runEnds[_runCount - 1];
+        if (start == end)
+            return; // nothing was appended
+        if (_runCount > 0) {
+            int last = _runCount - 1;
+            boolean isSameFormat = (style != null) ? style.equals(_runStyles[last]) : format == _runFormats[last];
+            if (isSameFormat) {
+                _runEnds[last] = end;
+                return;
+            }
+        }
+        if (_runCount == _runEnds.length) {
+            int capacity = 2 * _runEnds.length;
+            _runEnds = Arrays.copyOf(_runEnds, capacity);
+            _runStyles = Arrays.copyOf(_runStyles, capacity);
+            _runFormats = Arrays.copyOf(_runFormats, capacity);
+        }
+        _runEnds[_runCount] = end;
+        _runStyles[_runCount] = style;
+        _runFormats[_runCount] = format;
+        _runCount++;
+    }
+
+    // The renderer is reused while the color mode is the same, to keep its transitions
+    private AnsiSpanRenderer getRenderer(Appendable output) {
+        if (_renderer == null || _renderer.getColorMode() != Ansi.getColorMode())
+            _renderer = new AnsiSpanRenderer(output);
+        else
+            _renderer.setOutput(output);
+        return _renderer;
+    }
+}
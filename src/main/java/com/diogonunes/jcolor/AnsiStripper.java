@@ -0,0 +1,123 @@
+package com.diogonunes.jcolor;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Removes ANSI escape sequences from text, e.g. the codes created by {@link Ansi#colorize(String, Attribute...)}
+ * before the text is saved to a file. It removes CSI sequences (which include SGR formats), string sequences
+ * (e.g. OSC hyperlinks) and any other sequence that starts with ESC.
+ * <p>
+ * Text can be stripped all at once, with {@link #strip(String)}, or as it streams through a Writer,
+ * a Reader or an InputStream.
+ */
+public final class AnsiStripper {
+
+    private static final char ESC = 27;
+    private static final char BEL = 7;
+
+    // States of the parser. Only TEXT means that the last char is visible.
+    static final int TEXT = 0;
+    private static final int SEQUENCE_END = 1;
+    private static final int ESCAPE = 2;
+    private static final int ESCAPE_INTERMEDIATE = 3;
+    private static final int CSI = 4;
+    private static final int STRING = 5;
+    private static final int STRING_ESCAPE = 6;
+
+    private AnsiStripper() {
+    }
+
+    /**
+     * @param text Text that may contain ANSI escape sequences.
+     * @return The text without escape sequences. If it had none, the same instance is returned.
+     */
+    public static String strip(String text) {
+        int escape = text.indexOf(ESC);
+        if (escape < 0)
+            return text;
+
+        StringBuilder output = new StringBuilder(text.length());
+        output.append(text, 0, escape);
+        int state = TEXT, runStart = escape, end = text.length();
+        for (int i = escape; i < end; i++) {
+            state = next(state, text.charAt(i));
+            if (state == TEXT)
+                continue;
+            output.append(text, runStart, i);
+            runStart = i + 1;
+        }
+        output.append(text, runStart, end);
+        return output.toString();
+    }
+
+    /**
+     * @param out The writer where stripped text is written to.
+     * @return A writer that removes escape sequences from everything written through it.
+     */
+    public static Writer stripping(Writer out) {
+        return new StrippingWriter(out);
+    }
+
+    /**
+     * @param in The reader that provides text with escape sequences.
+     * @return A reader that removes escape sequences from everything read through it.
+     */
+    public static Reader stripping(Reader in) {
+        return new StrippingReader(in);
+    }
+
+    /**
+     * Because bytes are parsed one by one, the text must be encoded in a charset compatible with ASCII
+     * (e.g. UTF-8). The 8-bit form of CSI (0x9B) is not removed, because in UTF-8 it is part of other chars.
+     *
+     * @param in The stream that provides text with escape sequences.
+     * @return A stream that removes escape sequences from everything read through it.
+     */
+    public static InputStream stripping(InputStream in) {
+        return new StrippingInputStream(in);
+    }
+
+    /**
+     * Moves the parser to its next state. Escape sequences can be split across calls, because the parser
+     * only depends on its previous state.
+     *
+     * @param state Previous state, which starts as {@link #TEXT}.
+     * @param c     Next char (or byte) of the text.
+     * @return The next state, which is {@link #TEXT} only if the char is visible.
+     */
+    static int next(int state, int c) {
+        switch (state) {
+            case ESCAPE:
+                if (c == '[')
+                    return CSI;
+                if (c == ']' || c == 'P' || c == 'X' || c == '^' || c == '_')
+                    return STRING; // OSC, DCS, SOS, PM and APC are terminated by BEL or ST (ESC \)
+                if (c == ESC)
+                    return ESCAPE;
+                if (0x20 <= c && c <= 0x2F)
+                    return ESCAPE_INTERMEDIATE;
+                return (0x30 <= c && c <= 0x7E) ? SEQUENCE_END : TEXT;
+            case ESCAPE_INTERMEDIATE:
+                if (0x20 <= c && c <= 0x2F)
+                    return ESCAPE_INTERMEDIATE;
+                return (0x30 <= c && c <= 0x7E) ? SEQUENCE_END : TEXT;
+            case CSI:
+                if (0x20 <= c && c <= 0x3F)
+                    return CSI; // parameters, e.g. "1;31", and intermediates
+                if (c == ESC)
+                    return ESCAPE;
+                return (0x40 <= c && c <= 0x7E) ? SEQUENCE_END : TEXT;
+            case STRING:
+                if (c == BEL)
+                    return SEQUENCE_END;
+                return (c == ESC) ? STRING_ESCAPE : STRING;
+            case STRING_ESCAPE:
+                // ESC \ terminates the string, any other ESC starts a new sequence
+                return (c == '\\') ? SEQUENCE_END : next(ESCAPE, c);
+            default:
+                return (c == ESC) ? ESCAPE : TEXT;
+        }
+    }
+}
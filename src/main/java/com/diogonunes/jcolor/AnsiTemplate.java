@@ -0,0 +1,208 @@
+package com.diogonunes.jcolor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message format with inline styles, e.g. {@code "@{bold,red [ERROR]} @{cyan %s} %s"}. It is compiled once
+ * into a list of segments (literal text, codes and argument slots), so that rendering it with arguments
+ * costs little more than concatenating them. A template is immutable, so compile it once and reuse it.
+ * <p>
+ * The markup is:
+ * <ul>
+ *     <li>{@code @{names text}} formats the text with the attributes named before the first space,
+ *     separated by commas, e.g. {@code @{bold,red text}} or {@code @{text_color(255,0,0) text}}.
+ *     Names are those of the {@link Attribute} factories, case-insensitive, and "_text" can be left out.</li>
+ *     <li>{@code %s} is replaced by the next argument.</li>
+ *     <li><code>%%</code>, <code>@@</code> and <code>@}</code> are a literal %, @ and }.</li>
+ * </ul>
+ * Styled text is formatted like {@link Ansi#colorize(String, AnsiFormat)}, even if an argument has several lines.
+ */
+public final class AnsiTemplate {
+
+    private final String _template;
+    private final Segment[] _segments;
+    private final int _slotCount;
+
+    private AnsiTemplate(String template, Segment[] segments, int slotCount) {
+        _template = template;
+        _segments = segments;
+        _slotCount = slotCount;
+    }
+
+    /**
+     * @param template Message format with inline styles.
+     * @return The compiled template, ready to be rendered.
+     * @throws IllegalArgumentException If the template is malformed, or has an unknown attribute.
+     */
+    public static AnsiTemplate compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        AnsiFormat format = null; // format of the styled text, or null outside it
+        int slotCount = 0;
+
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            char next = (i + 1 < template.length()) ? template.charAt(i + 1) : 0;
+            if (c == '@' && (next == '@' || next == '}')) {
+                literal.append(next);
+                i++;
+            } else if (c == '%' && next == '%') {
+                literal.append('%');
+                i++;
+            } else if (c == '%' && next == 's') {
+                addLiteral(segments, literal);
+                segments.add(new Segment(Segment.ARGUMENT, null, slotCount++, null));
+                i++;
+            } else if (c == '%') {
+                throw malformed(template, i, "only %s and %% are supported");
+            } else if (c == '@' && next == '{') {
+                if (format != null)
+                    throw malformed(template, i, "styles can't be nested");
+                addLiteral(segments, literal);
+                int namesEnd = findNamesEnd(template, i + 2);
+                format = new AnsiFormat(AttributeNames.parse(template.substring(i + 2, namesEnd)));
+                segments.add(new Segment(Segment.START, null, -1, format));
+                i = (namesEnd < template.length() && template.charAt(namesEnd) == ' ') ? namesEnd : namesEnd - 1;
+            } else if (c == '}' && format != null) {
+                addLiteral(segments, literal);
+                segments.add(new Segment(Segment.END, null, -1, null));
+                format = null;
+            } else
+                literal.append(c);
+        }
+        if (format != null)
+            throw malformed(template, template.length(), "missing }");
+        addLiteral(segments, literal);
+        return new AnsiTemplate(template, segments.toArray(new Segment[0]), slotCount);
+    }
+
+    /**
+     * @param arguments Values of the %s slots, in order.
+     * @return The formatted message, ready to be printed.
+     * @throws IllegalArgumentException If there are fewer arguments than slots.
+     */
+    public String render(Object... arguments) {
+        StringBuilder output = new StringBuilder(_template.length() + 16 * arguments.length);
+        renderTo(output, arguments);
+        return output.toString();
+    }
+
+    /**
+     * @param output    Where the formatted message is appended to.
+     * @param arguments Values of the %s slots, in order.
+     * @throws IllegalArgumentException If there are fewer arguments than slots.
+     */
+    public void renderTo(StringBuilder output, Object... arguments) {
+        try {
+            renderTo((Appendable) output, arguments);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // never happens, a StringBuilder does not throw it
+        }
+    }
+
+    /**
+     * @param output    Where the formatted message is written to, e.g. a StringBuilder, a Writer or a CharBuffer.
+     * @param arguments Values of the %s slots, in order.
+     * @throws IOException              If the output fails to append the formatted message.
+     * @throws IllegalArgumentException If there are fewer arguments than slots.
+     */
+    public void renderTo(Appendable output, Object... arguments) throws IOException {
+        if (arguments.length < _slotCount)
+            throw new IllegalArgumentException(String.format(
+                    "Template has %d slots, but received %d arguments", _slotCount, arguments.length));
+
+        boolean isColorOff = Ansi.isColorOff();
+        String code = null; // code of the styled text, or null outside it
+        for (Segment segment : _segments) {
+            switch (segment._kind) {
+                case Segment.START:
+                    if (!isColorOff) {
+                        code = segment._format.getCode();
+                        output.append(code);
+                    }
+                    break;
+                case Segment.END:
+                    if (!isColorOff)
+                        output.append(Ansi.RESET);
+                    code = null;
+                    break;
+                default:
+                    CharSequence text = (segment._kind == Segment.LITERAL)
+                            ? segment._text : toText(arguments[segment._slot]);
+                    if (code == null)
+                        Ansi.appendText(output, text, 0, text.length());
+                    else
+                        Ansi.appendLines(output, text, 0, text.length(), code);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return How many %s slots the template has.
+     */
+    public int getSlotCount() {
+        return _slotCount;
+    }
+
+    @Override
+    public String toString() {
+        return _template;
+    }
+
+    private static CharSequence toText(Object argument) {
+        return (argument instanceof CharSequence) ? (CharSequence) argument : String.valueOf(argument);
+    }
+
+    private static void addLiteral(List<Segment> segments, StringBuilder literal) {
+        if (literal.length() == 0)
+            return;
+        segments.add(new Segment(Segment.LITERAL, literal.toString(), -1, null));
+        literal.setLength(0);
+    }
+
+    // The names end at the first space or }, except inside parentheses, e.g. text_color(255, 0, 0)
+    private static int findNamesEnd(String template, int start) {
+        int depth = 0;
+        for (int i = start; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '(')
+                depth++;
+            else if (c == ')')
+                depth--;
+            else if ((c == ' ' || c == '}') && depth == 0)
+                return i;
+        }
+        throw malformed(template, template.length(), "missing }");
+    }
+
+    private static IllegalArgumentException malformed(String template, int index, String reason) {
+        return new IllegalArgumentException(
+                String.format("Malformed template at index %d, %s: %s", index, reason, template));
+    }
+
+    /**
+     * A part of the compiled template: literal text, an argument slot, or the start or end of styled text.
+     */
+    private static final class Segment {
+        private static final int LITERAL = 0;
+        private static final int ARGUMENT = 1;
+        private static final int START = 2;
+        private static final int END = 3;
+
+        private final int _kind;
+        private final String _text;
+        private final int _slot;
+        private final AnsiFormat _format;
+
+        private Segment(int kind, String text, int slot, AnsiFormat format) {
+            _kind = kind;
+            _text = text;
+            _slot = slot;
+            _format = format;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.diogonunes.jcolor;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Formats everything written through it, as it is written. After it is closed, the output is the same as
+ * {@link AnsiFormat#format(String)} of all the text, but the text is never held in memory. This is useful to
+ * format large or endless text, e.g. the output of a subprocess.
+ * <p>
+ * Each line ends the current format (RESET) and starts it on the next line, even if a line break
+ * (\n, \r\n or \r) is split across writes. The final RESET is written when the writer is closed.
+ * If the {@link ColorMode} is OFF when the writer is created, text is written as it is.
+ */
+public class AnsiWriter extends FilterWriter {
+
+    private final String _code;
+    private final boolean _isColored;
+    private boolean _isStarted = false;
+    private boolean _isClosed = false;
+    // A \r was written, but it is not known yet if it is followed by \n
+    private boolean _hasPendingCarriageReturn = false;
+
+    /**
+     * Constructor.
+     *
+     * @param out    The writer where formatted text is written to.
+     * @param format Object containing format attributes.
+     */
+    public AnsiWriter(Writer out, AnsiFormat format) {
+        super(out);
+        _code = format.getCode();
+        _isColored = !Ansi.isColorOff();
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        synchronized (lock) {
+            write(String.valueOf((char) c), 0, 1);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            if (!_isColored) {
+                out.write(cbuf, off, len);
+                return;
+            }
+            int end = off + len, runStart = off;
+            for (int i = off; i < end; i++) {
+                char c = cbuf[i];
+                if (c != '\n' && c != '\r' && !_hasPendingCarriageReturn)
+                    continue;
+
+                out.write(cbuf, runStart, i - runStart);
+                runStart = i + 1;
+                if (endsLine(c))
+                    runStart = i;
+            }
+            out.write(cbuf, runStart, end - runStart);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            if (!_isColored) {
+                out.write(str, off, len);
+                return;
+            }
+            int end = off + len, runStart = off;
+            for (int i = off; i < end; i++) {
+                char c = str.charAt(i);
+                if (c != '\n' && c != '\r' && !_hasPendingCarriageReturn)
+                    continue;
+
+                out.write(str, runStart, i - runStart);
+                runStart = i + 1;
+                if (endsLine(c))
+                    runStart = i;
+            }
+            out.write(str, runStart, end - runStart);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (_isClosed)
+                return;
+            _isClosed = true;
+            if (!_isColored) {
+                out.close();
+                return;
+            }
+            ensureStarted();
+            if (_hasPendingCarriageReturn) {
+                _hasPendingCarriageReturn = false;
+                out.write(_code);
+            }
+            out.write(Ansi.RESET);
+            out.close();
+        }
+    }
+
+    /**
+     * Handles the char that follows a line break, or that is a line break.
+     *
+     * @return True if the char was not written and still needs to be, as part of the current line.
+     */
+    private boolean endsLine(char c) throws IOException {
+        if (_hasPendingCarriageReturn) {
+            _hasPendingCarriageReturn = false;
+            if (c == '\n') {
+                out.write('\n');
+                out.write(_code);
+                return false;
+            }
+            // the \r was a line break on its own, so the next line starts here
+            out.write(_code);
+        }
+
+        if (c == '\r') {
+            out.write(Ansi.RESET);
+            out.write('\r');
+            _hasPendingCarriageReturn = true;
+            return false;
+        }
+        if (c == '\n') {
+            out.write(Ansi.RESET);
+            out.write('\n');
+            out.write(_code);
+            return false;
+        }
+        return true;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (_isClosed)
+            throw new IOException("Writer is closed");
+        ensureStarted();
+    }
+
+    private void ensureStarted() throws IOException {
+        if (!_isStarted && _isColored) {
+            out.write(_code);
+            _isStarted = true;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.diogonunes.jcolor;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prints formatted text from many threads without making them wait for each other, unlike System.out,
+ * whose lock is held while each message is written. Threads only add the text and its format to a
+ * lock-free queue; a single writer thread formats them and writes them in large batches.
+ * <p>
+ * When the queue is full, the {@link OverflowPolicy} decides what happens to new messages. Messages of
+ * each thread are printed in the order they were added. Text that is not a String, e.g. a StringBuilder that
+ * the caller reuses, is copied when it is added. The output stream is never closed by this console,
+ * because it is usually stdout.
+ * <p>
+ * Close the console when you are done with it, e.g. with try-with-resources, so that the messages in the queue
+ * are printed. If the JVM exits normally before that, a shutdown hook closes it; but the hook does not run when
+ * the JVM is killed or halted, and it keeps the console from being garbage collected until it is closed.
+ */
+public final class AsyncAnsiConsole implements Closeable {
+
+    /**
+     * What happens to a message when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The thread waits until there is room for the message.
+         */
+        BLOCK,
+        /**
+         * The message is dropped, and counted.
+         */
+        DROP,
+        /**
+         * The message is dropped, and counted. The writer prints a single line in its place, with how many
+         * messages were dropped, so gaps in the output are visible.
+         */
+        COALESCE
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Flushes at least once every this many messages, so that flush() does not wait for an empty queue
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    // Waits are short, because the writer does not wake up waiting threads
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // Set in _tail when the console is closed, so that no thread can claim a position afterwards
+    private static final long CLOSED = 1L << 62;
+
+    private final ColorizingOutputStream _output;
+    private final OverflowPolicy _policy;
+    private final int _mask;
+    /*
+     * Ring buffer of messages, where slot i holds the message added at position p if _sequences[i] == p + 1.
+     * A thread claims position p when _sequences[i] == p, by moving _tail from p to p + 1. After the writer
+     * reads the message, it frees the slot for the next round by setting _sequences[i] to p + capacity.
+     * Closing sets the CLOSED bit of _tail: every position claimed before it is written, and none after it.
+     */
+    private final AtomicLongArray _sequences;
+    private final CharSequence[] _texts;
+    private final AnsiFormat[] _formats;
+    private final boolean[] _newLines;
+    private final AtomicLong _tail = new AtomicLong();
+    private volatile long _head = 0; // only changed by the writer
+    private volatile long _flushed = 0; // position up to which messages were written and flushed
+    private final AtomicLong _dropped = new AtomicLong();
+    private final AtomicLong _pendingDrops = new AtomicLong(); // dropped, but not printed yet (COALESCE)
+    private final Thread _writer;
+    private final Thread _shutdownHook;
+    private volatile boolean _isWriterWaiting = false;
+    private volatile boolean _isClosed = false;
+    private volatile boolean _hasError = false;
+
+    /**
+     * Constructor. Prints to stdout, bypassing System.out, with the BLOCK policy.
+     */
+    public AsyncAnsiConsole() {
+        this(new FileOutputStream(FileDescriptor.out), DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out      The stream where formatted text is written to, encoded as UTF-8.
+     * @param capacity How many messages the queue holds, rounded up to a power of 2.
+     * @param policy   What happens to a message when the queue is full.
+     */
+    public AsyncAnsiConsole(OutputStream out, int capacity, OverflowPolicy policy) {
+        if (capacity <= 0 || capacity > (1 << 30))
+            throw new IllegalArgumentException("Capacity must be inside range [1-2^30]. Received: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        size = (size < capacity) ? size << 1 : size;
+
+        _output = new ColorizingOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        _policy = policy;
+        _mask = size - 1;
+        _sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+            _sequences.set(i, i);
+        _texts = new CharSequence[size];
+        _formats = new AnsiFormat[size];
+        _newLines = new boolean[size];
+
+        _writer = new Thread(this::runWriter, "jcolor-async-console");
+        _writer.setDaemon(true);
+        _writer.start();
+        _shutdownHook = new Thread(this::close, "jcolor-async-console-shutdown");
+        Runtime.getRuntime().addShutdownHook(_shutdownHook);
+    }
+
+    /**
+     * @param text Text to print, as it is.
+     * @return True if it was added, false if it was dropped.
+     */
+    public boolean print(CharSequence text) {
+        return add(text, null, false);
+    }
+
+    /**
+     * @param text   Text to print.
+     * @param format Object containing format attributes.
+     * @return True if it was added, false if it was dropped.
+     */
+    public boolean print(CharSequence text, AnsiFormat format) {
+        return add(text, format, false);
+    }
+
+    /**
+     * Prints the formatted text, followed by a line break.
+     *
+     * @param text   Text to print.
+     * @param format Object containing format attributes.
+     * @return True if it was added, false if it was dropped.
+     */
+    public boolean println(CharSequence text, AnsiFormat format) {
+        return add(text, format, true);
+    }
+
+    /**
+     * Waits until every message added before this call is written and flushed.
+     */
+    public void flush() {
+        long target = _tail.get() & ~CLOSED;
+        while (_flushed < target && _writer.isAlive()) {
+            LockSupport.unpark(_writer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Stops accepting messages, and waits until the writer prints the ones in the queue.
+     * Messages added afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        _isClosed = true;
+        _tail.getAndUpdate(tail -> tail | CLOSED);
+        LockSupport.unpark(_writer);
+        boolean isInterrupted = false;
+        while (_writer.isAlive()) {
+            try {
+                _writer.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted)
+            Thread.currentThread().interrupt();
+
+        if (Thread.currentThread() != _shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(_shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down, so the hook runs anyway, and finds the console closed
+            }
+        }
+    }
+
+    /**
+     * @return How many messages are in the queue, waiting to be written.
+     */
+    public long getQueueDepth() {
+        return Math.max(0, (_tail.get() & ~CLOSED) - _head);
+    }
+
+    /**
+     * @return How many messages were dropped, because the queue was full or the console was closed.
+     */
+    public long getDroppedCount() {
+        return _dropped.get();
+    }
+
+    /**
+     * Like {@link java.io.PrintStream#checkError()}, the writer does not throw errors of the output stream.
+     *
+     * @return True if the output stream failed to write.
+     */
+    public boolean checkError() {
+        return _hasError;
+    }
+
+    private boolean add(CharSequence text, AnsiFormat format, boolean isNewLine) {
+        // the writer reads the text later, so it must not change in the meantime
+        CharSequence snapshot = (text instanceof String) ? text : text.toString();
+        int attempts = 0;
+        while (!_isClosed) {
+            if (offer(snapshot, format, isNewLine)) {
+                if (_isWriterWaiting)
+                    LockSupport.unpark(_writer);
+                return true;
+            }
+            if (_policy != OverflowPolicy.BLOCK)
+                break;
+            // waits for the writer to free a slot, without holding any lock (which would pin a virtual thread)
+            if (++attempts < 16)
+                Thread.yield();
+            else
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        _dropped.incrementAndGet();
+        if (_policy == OverflowPolicy.COALESCE)
+            _pendingDrops.incrementAndGet();
+        return false;
+    }
+
+    // Adds the message to the ring buffer, or returns false if it is full or closed
+    private boolean offer(CharSequence text, AnsiFormat format, boolean isNewLine) {
+        long position = _tail.get();
+        int slot;
+        while (true) {
+            if ((position & CLOSED) != 0)
+                return false;
+            slot = (int) position & _mask;
+            long difference = _sequences.get(slot) - position;
+            if (difference == 0) {
+                if (_tail.compareAndSet(position, position + 1))
+                    break;
+                position = _tail.get(); // another thread claimed it
+            } else if (difference < 0)
+                return false; // the writer did not free this slot yet
+            else
+                position = _tail.get();
+        }
+        _texts[slot] = text;
+        _formats[slot] = format;
+        _newLines[slot] = isNewLine;
+        _sequences.set(slot, position + 1); // publishes the message to the writer
+        return true;
+    }
+
+    private void runWriter() {
+        long head = _head;
+        int batchSize = 0;
+        while (true) {
+            int slot = (int) head & _mask;
+            if (_sequences.get(slot) == head + 1) {
+                write(_texts[slot], _formats[slot], _newLines[slot]);
+                _texts[slot] = null;
+                _formats[slot] = null;
+                _sequences.set(slot, head + _mask + 1);
+                _head = ++head;
+                if (++batchSize < MAX_BATCH_SIZE)
+                    continue;
+            }
+
+            // the queue is empty (or the batch is full), so the batch is written
+            batchSize = 0;
+            writeDrops();
+            if (_flushed < head) {
+                flushOutput();
+                _flushed = head;
+            }
+            long tail = _tail.get();
+            if ((tail & CLOSED) != 0) {
+                if (head == (tail & ~CLOSED))
+                    return;
+                // a thread claimed the next position before closing, but has not added its message yet
+                if (_sequences.get(slot) != head + 1)
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                continue;
+            }
+            _isWriterWaiting = true;
+            if (_sequences.get(slot) != head + 1 && !_isClosed)
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            _isWriterWaiting = false;
+        }
+    }
+
+    private void write(CharSequence text, AnsiFormat format, boolean isNewLine) {
+        if (_hasError)
+            return;
+        try {
+            if (format == null)
+                _output.write(text);
+            else
+                _output.write(text, format);
+            if (isNewLine)
+                _output.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            _hasError = true;
+        }
+    }
+
+    private void writeDrops() {
+        long drops = _pendingDrops.getAndSet(0);
+        if (drops > 0) {
+            write(String.format("[%d messages dropped]", drops), null, true);
+            flushOutput();
+        }
+    }
+
+    private void flushOutput() {
+        if (_hasError)
+            return;
+        try {
+            _output.flush();
+        } catch (IOException e) {
+            _hasError = true;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.diogonunes.jcolor;
 
 /**
  * Abstracts ANSI codes with intuitive names. It maps a description (e.g. RED_TEXT) with a code (e.g. 31).
+ * Attributes are immutable, so factory methods return shared instances instead of creating new ones.
+ * Attributes with the same code are equal, e.g. BOLD() and SATURATED(), or two TEXT_COLOR(1).
  * @see <a href="https://en.wikipedia.org/wiki/ANSI_escape_code#Escape_sequences">Wikipedia, for a list of all codes available</a>
  * @see <a href="https://stackoverflow.com/questions/4842424/list-of-ansi-color-escape-sequences/33206814#33206814">StackOverflow, for a list of codes with examples</a>
  */
@@ -13,215 +15,223 @@ public abstract class Attribute {
     @Override
     public abstract String toString();
 
+    /**
+     * @param mode How many colors the terminal supports.
+     * @return The Attribute's ansi escape code, using only colors available in that mode.
+     */
+    String toString(ColorMode mode) {
+        return toString();
+    }
+
     // Effects
 
     public static Attribute NONE() {
-        return new SimpleAttribute("");
+        return SimpleAttribute.NONE;
     }
 
     /**
      * @return Clears any format. Restores the terminal's default format.
      */
     public static Attribute CLEAR() {
-        return new SimpleAttribute("0");
+        return SimpleAttribute.of(0);
     }
 
     public static Attribute BOLD() {
-        return new SimpleAttribute("1");
+        return SimpleAttribute.of(1);
     }
 
     /**
      * @return Alias of BOLD().
      */
     public static Attribute SATURATED() {
-        return new SimpleAttribute("1");
+        return SimpleAttribute.of(1);
     }
 
     public static Attribute DIM() {
-        return new SimpleAttribute("2");
+        return SimpleAttribute.of(2);
     }
 
     /**
      * @return Alias of DIM().
      */
     public static Attribute DESATURATED() {
-        return new SimpleAttribute("2");
+        return SimpleAttribute.of(2);
     }
 
     public static Attribute ITALIC() {
-        return new SimpleAttribute("3");
+        return SimpleAttribute.of(3);
     }
 
     public static Attribute UNDERLINE() {
-        return new SimpleAttribute("4");
+        return SimpleAttribute.of(4);
     }
 
     public static Attribute SLOW_BLINK() {
-        return new SimpleAttribute("5");
+        return SimpleAttribute.of(5);
     }
 
     public static Attribute RAPID_BLINK() {
-        return new SimpleAttribute("6");
+        return SimpleAttribute.of(6);
     }
 
     public static Attribute REVERSE() {
-        return new SimpleAttribute("7");
+        return SimpleAttribute.of(7);
     }
 
     public static Attribute HIDDEN() {
-        return new SimpleAttribute("8");
+        return SimpleAttribute.of(8);
     }
 
     public static Attribute STRIKETHROUGH() {
-        return new SimpleAttribute("9");
+        return SimpleAttribute.of(9);
     }
     
     public static Attribute FRAMED() {
-        return new SimpleAttribute("51");
+        return SimpleAttribute.of(51);
     }
  
     public static Attribute ENCIRCLED() {
-        return new SimpleAttribute("52");
+        return SimpleAttribute.of(52);
     }
 
     public static Attribute OVERLINED() {
-        return new SimpleAttribute("53");
+        return SimpleAttribute.of(53);
     }
 
     // Colors (foreground)
 
     public static Attribute BLACK_TEXT() {
-        return new SimpleAttribute("30");
+        return SimpleAttribute.of(30);
     }
 
     public static Attribute RED_TEXT() {
-        return new SimpleAttribute("31");
+        return SimpleAttribute.of(31);
     }
 
     public static Attribute GREEN_TEXT() {
-        return new SimpleAttribute("32");
+        return SimpleAttribute.of(32);
     }
 
     public static Attribute YELLOW_TEXT() {
-        return new SimpleAttribute("33");
+        return SimpleAttribute.of(33);
     }
 
     public static Attribute BLUE_TEXT() {
-        return new SimpleAttribute("34");
+        return SimpleAttribute.of(34);
     }
 
     public static Attribute MAGENTA_TEXT() {
-        return new SimpleAttribute("35");
+        return SimpleAttribute.of(35);
     }
 
     public static Attribute CYAN_TEXT() {
-        return new SimpleAttribute("36");
+        return SimpleAttribute.of(36);
     }
 
     public static Attribute WHITE_TEXT() {
-        return new SimpleAttribute("37");
+        return SimpleAttribute.of(37);
     }
 
     // Colors (background)
 
     public static Attribute BLACK_BACK() {
-        return new SimpleAttribute("40");
+        return SimpleAttribute.of(40);
     }
 
     public static Attribute RED_BACK() {
-        return new SimpleAttribute("41");
+        return SimpleAttribute.of(41);
     }
 
     public static Attribute GREEN_BACK() {
-        return new SimpleAttribute("42");
+        return SimpleAttribute.of(42);
     }
 
     public static Attribute YELLOW_BACK() {
-        return new SimpleAttribute("43");
+        return SimpleAttribute.of(43);
     }
 
     public static Attribute BLUE_BACK() {
-        return new SimpleAttribute("44");
+        return SimpleAttribute.of(44);
     }
 
     public static Attribute MAGENTA_BACK() {
-        return new SimpleAttribute("45");
+        return SimpleAttribute.of(45);
     }
 
     public static Attribute CYAN_BACK() {
-        return new SimpleAttribute("46");
+        return SimpleAttribute.of(46);
     }
 
     public static Attribute WHITE_BACK() {
-        return new SimpleAttribute("47");
+        return SimpleAttribute.of(47);
     }
 
     // Bright colors (foreground)
 
     public static Attribute BRIGHT_BLACK_TEXT() {
-        return new SimpleAttribute("90");
+        return SimpleAttribute.of(90);
     }
 
     public static Attribute BRIGHT_RED_TEXT() {
-        return new SimpleAttribute("91");
+        return SimpleAttribute.of(91);
     }
 
     public static Attribute BRIGHT_GREEN_TEXT() {
-        return new SimpleAttribute("92");
+        return SimpleAttribute.of(92);
     }
 
     public static Attribute BRIGHT_YELLOW_TEXT() {
-        return new SimpleAttribute("93");
+        return SimpleAttribute.of(93);
     }
 
     public static Attribute BRIGHT_BLUE_TEXT() {
-        return new SimpleAttribute("94");
+        return SimpleAttribute.of(94);
     }
 
     public static Attribute BRIGHT_MAGENTA_TEXT() {
-        return new SimpleAttribute("95");
+        return SimpleAttribute.of(95);
     }
 
     public static Attribute BRIGHT_CYAN_TEXT() {
-        return new SimpleAttribute("96");
+        return SimpleAttribute.of(96);
     }
 
     public static Attribute BRIGHT_WHITE_TEXT() {
-        return new SimpleAttribute("97");
+        return SimpleAttribute.of(97);
     }
 
     // Bright colors (background)
 
     public static Attribute BRIGHT_BLACK_BACK() {
-        return new SimpleAttribute("100");
+        return SimpleAttribute.of(100);
     }
 
     public static Attribute BRIGHT_RED_BACK() {
-        return new SimpleAttribute("101");
+        return SimpleAttribute.of(101);
     }
 
     public static Attribute BRIGHT_GREEN_BACK() {
-        return new SimpleAttribute("102");
+        return SimpleAttribute.of(102);
     }
 
     public static Attribute BRIGHT_YELLOW_BACK() {
-        return new SimpleAttribute("103");
+        return SimpleAttribute.of(103);
     }
 
     public static Attribute BRIGHT_BLUE_BACK() {
-        return new SimpleAttribute("104");
+        return SimpleAttribute.of(104);
     }
 
     public static Attribute BRIGHT_MAGENTA_BACK() {
-        return new SimpleAttribute("105");
+        return SimpleAttribute.of(105);
     }
 
     public static Attribute BRIGHT_CYAN_BACK() {
-        return new SimpleAttribute("106");
+        return SimpleAttribute.of(106);
     }
 
     public static Attribute BRIGHT_WHITE_BACK() {
-        return new SimpleAttribute("107");
+        return SimpleAttribute.of(107);
     }
 
     // Complex colors
@@ -232,7 +242,7 @@ public abstract class Attribute {
      * @return An Attribute that represents a foreground with an 8-bit color.
      */
     public static Attribute TEXT_COLOR(int colorNumber) {
-        return new TextColorAttribute(colorNumber);
+        return TextColorAttribute.of(colorNumber);
     }
 
     /**
@@ -252,7 +262,7 @@ public abstract class Attribute {
      * @return An Attribute that represents a background with an 8-bit color.
      */
     public static Attribute BACK_COLOR(int colorNumber) {
-        return new BackColorAttribute(colorNumber);
+        return BackColorAttribute.of(colorNumber);
     }
 
     /**
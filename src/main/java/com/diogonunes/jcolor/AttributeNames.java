@@ -0,0 +1,105 @@
+package com.diogonunes.jcolor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds attributes by the name of their factory method, e.g. "bold" for BOLD(), so that formats can be
+ * written as text. Names are case-insensitive, and "_text" can be left out, e.g. "red" for RED_TEXT().
+ * Colors are written as "text_color(196)" or "back_color(255, 0, 0)".
+ */
+final class AttributeNames {
+
+    private static final Map<String, Attribute> NAMED = new HashMap<>();
+
+    static {
+        // every factory without parameters returns a shared instance, so it is called once
+        for (Method method : Attribute.class.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                    || method.getReturnType() != Attribute.class)
+                continue;
+            try {
+                Attribute attribute = (Attribute) method.invoke(null);
+                String name = method.getName().toLowerCase(Locale.ROOT);
+                NAMED.put(name, attribute);
+                if (name.endsWith("_text"))
+                    NAMED.put(name.substring(0, name.length() - "_text".length()), attribute);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Can't create attribute " + method.getName(), e);
+            }
+        }
+    }
+
+    private AttributeNames() {
+    }
+
+    /**
+     * @param names Names of attributes, separated by commas, e.g. "bold, red, back_color(0, 0, 95)".
+     * @return The attributes, in the same order.
+     * @throws IllegalArgumentException If a name is unknown, or a color is invalid.
+     */
+    static Attribute[] parse(String names) {
+        List<Attribute> attributes = new ArrayList<>();
+        int depth = 0, nameStart = 0;
+        for (int i = 0; i <= names.length(); i++) {
+            char c = (i < names.length()) ? names.charAt(i) : ',';
+            if (c == '(')
+                depth++;
+            else if (c == ')')
+                depth--;
+            else if (c == ',' && depth == 0) {
+                String name = names.substring(nameStart, i).trim();
+                if (!name.isEmpty())
+                    attributes.add(of(name));
+                nameStart = i + 1;
+            }
+        }
+        return attributes.toArray(new Attribute[0]);
+    }
+
+    /**
+     * @param name Name of an attribute, e.g. "bold" or "text_color(255, 0, 0)".
+     * @return The attribute with that name.
+     * @throws IllegalArgumentException If the name is unknown, or the color is invalid.
+     */
+    static Attribute of(String name) {
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        Attribute attribute = NAMED.get(key);
+        if (attribute != null)
+            return attribute;
+
+        int open = key.indexOf('(');
+        if (open > 0 && key.endsWith(")")) {
+            String function = key.substring(0, open).trim();
+            int[] arguments = parseNumbers(name, key.substring(open + 1, key.length() - 1));
+            boolean isText = function.equals("text_color");
+            if (isText || function.equals("back_color")) {
+                if (arguments.length == 1)
+                    return isText ? Attribute.TEXT_COLOR(arguments[0]) : Attribute.BACK_COLOR(arguments[0]);
+                if (arguments.length == 3)
+                    return isText
+                            ? Attribute.TEXT_COLOR(arguments[0], arguments[1], arguments[2])
+                            : Attribute.BACK_COLOR(arguments[0], arguments[1], arguments[2]);
+            }
+        }
+        throw new IllegalArgumentException("Unknown attribute: " + name);
+    }
+
+    private static int[] parseNumbers(String name, String numbers) {
+        String[] parts = numbers.split(",");
+        int[] values = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++)
+                values[i] = Integer.parseInt(parts[i].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown attribute: " + name, e);
+        }
+        return values;
+    }
+}
@@ -2,6 +2,13 @@ package com.diogonunes.jcolor;
 
 class BackColorAttribute extends ColorAttribute {
 
+    private static final BackColorAttribute[] INDEXED = new BackColorAttribute[256];
+
+    static {
+        for (int colorNumber = 0; colorNumber < INDEXED.length; colorNumber++)
+            INDEXED[colorNumber] = new BackColorAttribute(colorNumber);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -16,6 +23,16 @@ class BackColorAttribute extends ColorAttribute {
         super(r, g, b);
     }
 
+    /**
+     * @param colorNumber A number (0-255) that represents an 8-bit color.
+     * @return The shared instance that represents a background with that 8-bit color.
+     */
+    static BackColorAttribute of(int colorNumber) {
+        if (0 <= colorNumber && colorNumber < INDEXED.length)
+            return INDEXED[colorNumber];
+        return new BackColorAttribute(colorNumber); // rejects the out of range color
+    }
+
     @Override
     protected String getColorAnsiPrefix() {
         String ANSI_8BIT_COLOR_PREFIX = "48;5;";
@@ -24,4 +41,15 @@ class BackColorAttribute extends ColorAttribute {
         return isTrueColor() ? ANSI_TRUE_COLOR_PREFIX : ANSI_8BIT_COLOR_PREFIX;
     }
 
+    @Override
+    protected ColorAttribute getIndexedColor(int colorNumber) {
+        return of(colorNumber);
+    }
+
+    @Override
+    protected Attribute getBasicColor(int colorNumber) {
+        // e.g. RED_BACK() is 41, BRIGHT_RED_BACK() is 101
+        return SimpleAttribute.of(colorNumber < 8 ? 40 + colorNumber : 100 + (colorNumber - 8));
+    }
+
 }
@@ -1,10 +1,10 @@
 package com.diogonunes.jcolor;
 
-import static java.lang.String.valueOf;
-
 abstract class ColorAttribute extends Attribute {
 
-    protected final String[] _color;
+    // Packed color, see Style
+    private final int _color;
+    private final String _code;
 
     /**
      * Constructor (8-bit color).
@@ -13,9 +13,10 @@ abstract class ColorAttribute extends Attribute {
      */
     ColorAttribute(int colorNumber) {
         if (0 <= colorNumber && colorNumber <= 255) {
-            _color = new String[]{valueOf(colorNumber)};
+            _color = Style.indexedColor(colorNumber);
         } else
             throw new IllegalArgumentException("Color must be a number inside range [0-255]. Received: " + colorNumber);
+        _code = render();
     }
 
     /**
@@ -27,28 +28,95 @@ abstract class ColorAttribute extends Attribute {
      */
     ColorAttribute(int r, int g, int b) {
         if ((0 <= r && r <= 255) && (0 <= g && g <= 255) && (0 <= b && b <= 255)) {
-            _color = new String[]{valueOf(r), valueOf(g), valueOf(b)};
+            _color = Style.rgbColor(r, g, b);
         } else
             throw new IllegalArgumentException(
                     String.format("Color components must be a number inside range [0-255]. Received: %d, %d, %d", r, g, b));
+        _code = render();
     }
 
     protected boolean isTrueColor() {
-        return (_color.length == 3 );
+        return Style.isRgbColor(_color);
+    }
+
+    /**
+     * @return The color, packed as described by {@link Style}.
+     */
+    int getColor() {
+        return _color;
     }
 
     protected abstract String getColorAnsiPrefix();
 
-    protected String getColorAnsiCode() {
-        if (isTrueColor())
-            return _color[0] + Ansi.SEPARATOR + _color[1] + Ansi.SEPARATOR + _color[2];
-        else
-            return _color[0];
+    /**
+     * @param colorNumber A number (0-255) that represents an 8-bit color.
+     * @return The shared attribute of the same kind (foreground or background) with that 8-bit color.
+     */
+    protected abstract ColorAttribute getIndexedColor(int colorNumber);
+
+    /**
+     * @param colorNumber A number (0-15) that represents a basic color.
+     * @return The shared attribute of the same kind (foreground or background) with that basic color.
+     */
+    protected abstract Attribute getBasicColor(int colorNumber);
+
+    // Writes the color components straight into the buffer as digits, instead of concatenating Strings
+    private String render() {
+        String prefix = getColorAnsiPrefix();
+        StringBuilder builder = new StringBuilder(prefix.length() + 11); // 11 = "255;255;255".length()
+        builder.append(prefix);
+        if (isTrueColor()) {
+            builder.append(Style.red(_color)).append(Ansi.SEPARATOR)
+                    .append(Style.green(_color)).append(Ansi.SEPARATOR)
+                    .append(Style.blue(_color));
+        } else
+            builder.append(Style.colorNumber(_color));
+        return builder.toString();
     }
 
+    /**
+     * The code is rendered once, when the attribute is created, because attributes are immutable.
+     */
     @Override
     public String toString() {
-        return getColorAnsiPrefix() + getColorAnsiCode();
+        return _code;
+    }
+
+    /**
+     * Maps the color to the nearest one available in that mode, see {@link ColorPalette}.
+     */
+    @Override
+    String toString(ColorMode mode) {
+        switch (mode) {
+            case ANSI256:
+                if (!isTrueColor())
+                    return _code;
+                return getIndexedColor(ColorPalette.to256(Style.red(_color), Style.green(_color), Style.blue(_color))).toString();
+            case ANSI16:
+                int basicColor = isTrueColor()
+                        ? ColorPalette.to16(Style.red(_color), Style.green(_color), Style.blue(_color))
+                        : ColorPalette.to16(Style.colorNumber(_color));
+                return getBasicColor(basicColor).toString();
+            default:
+                return _code;
+        }
+    }
+
+    /**
+     * Two colors are equal if both are foreground (or background) and have the same 8-bit or RGB color.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (other == null || getClass() != other.getClass())
+            return false;
+        return _color == ((ColorAttribute) other)._color;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getClass().hashCode() + _color;
     }
 
 }
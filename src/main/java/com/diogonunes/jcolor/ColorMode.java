@@ -0,0 +1,103 @@
+package com.diogonunes.jcolor;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How many colors the terminal supports. JColor detects it once, when it is first used,
+ * see {@link Ansi#getColorMode()}.
+ */
+public enum ColorMode {
+
+    /**
+     * No ANSI codes at all, e.g. when the output is redirected to a file. Text is printed as it is.
+     */
+    OFF,
+
+    /**
+     * The 16 basic colors (8 normal and 8 bright).
+     */
+    ANSI16,
+
+    /**
+     * The 256 colors of the 8-bit palette.
+     */
+    ANSI256,
+
+    /**
+     * Any RGB color (24-bit).
+     */
+    TRUECOLOR;
+
+    /**
+     * Name of the system property that overrides the detected mode, e.g. {@code -Djcolor.colorMode=OFF}.
+     */
+    public static final String PROPERTY = "jcolor.colorMode";
+
+    /**
+     * Detects the mode of the terminal where this program runs. In order of precedence, it checks:
+     * the system property {@link #PROPERTY}; the environment variables NO_COLOR and FORCE_COLOR;
+     * the environment variables TERM and COLORTERM; and if there is a console.
+     *
+     * @return The mode that the terminal supports.
+     */
+    public static ColorMode detect() {
+        String property = System.getProperty(PROPERTY);
+        if (property != null) {
+            try {
+                return valueOf(property.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                // ignore an unknown mode, and detect it instead
+            }
+        }
+        return detect(System.getenv(), System.console() != null);
+    }
+
+    /**
+     * Detects the mode of a terminal, see <a href="https://no-color.org/">NO_COLOR</a> and
+     * <a href="https://force-color.org/">FORCE_COLOR</a>.
+     * <p>
+     * Without a console, TERM or COLORTERM, the output is not a terminal, e.g. a service or a container run
+     * without a TTY, so colors are off. IDE run windows and CI logs have no console either: set FORCE_COLOR
+     * or {@link #PROPERTY} to show colors there. With a console but without TERM (e.g. Windows), every color
+     * is used.
+     *
+     * @param environment Environment variables of the terminal.
+     * @param isConsole   True if the output is printed to a console, false if it is redirected.
+     * @return The mode that the terminal supports.
+     */
+    public static ColorMode detect(Map<String, String> environment, boolean isConsole) {
+        String noColor = environment.get("NO_COLOR");
+        if (noColor != null && !noColor.isEmpty())
+            return OFF;
+
+        String forceColor = environment.get("FORCE_COLOR");
+        if (forceColor != null) {
+            switch (forceColor.trim().toLowerCase(Locale.ROOT)) {
+                case "0":
+                case "false":
+                    return OFF;
+                case "2":
+                    return ANSI256;
+                case "3":
+                    return TRUECOLOR;
+                default:
+                    return ANSI16;
+            }
+        }
+
+        String term = environment.getOrDefault("TERM", "").toLowerCase(Locale.ROOT);
+        if (term.equals("dumb"))
+            return OFF;
+
+        String colorTerm = environment.getOrDefault("COLORTERM", "").toLowerCase(Locale.ROOT);
+        if (!isConsole && term.isEmpty() && colorTerm.isEmpty())
+            return OFF;
+        if (colorTerm.equals("truecolor") || colorTerm.equals("24bit") || term.endsWith("-direct")
+                || environment.containsKey("WT_SESSION")) // Windows Terminal
+            return TRUECOLOR;
+        if (term.contains("256color"))
+            return ANSI256;
+        return term.isEmpty() ? TRUECOLOR : ANSI16;
+    }
+}
@@ -0,0 +1,177 @@
+package com.diogonunes.jcolor;
+
+import java.util.Arrays;
+
+/**
+ * Maps colors to the nearest color of a smaller palette, so that they can be printed by terminals
+ * that do not support true colors, see {@link ColorMode}.
+ * <p>
+ * Colors are compared by their distance in the CIELAB color space, which is closer to how the human eye
+ * perceives them than their distance in RGB. To avoid computing it for every color, the nearest color of
+ * each RGB cell (5 bits per component) is computed once, when this class is loaded. Each mapping to a basic
+ * color is then a single array lookup.
+ * <p>
+ * Mappings to the 8-bit palette are refined, because the nearest color to the middle of a cell is not always
+ * the nearest to the color, e.g. (89, 89, 89) is nearer to gray 240 than the color of its cell. The color of
+ * the cell is compared with the cube colors up to a level around the color, and with the 24 grays. Colors of
+ * the xterm palette are found first, so they map to themselves.
+ */
+final class ColorPalette {
+
+    private static final int BITS = 5;
+    private static final int LEVELS = 1 << BITS;
+
+    // RGB of each color of the xterm 256 palette
+    private static final int[] XTERM = new int[256];
+    // CIELAB of each color of the xterm 256 palette
+    private static final double[][] PALETTE = new double[256][];
+    // Nearest color of each RGB cell, among the 6x6x6 cube and grays (16-255)
+    private static final byte[] RGB_TO_256 = new byte[LEVELS * LEVELS * LEVELS];
+    // Nearest color of each RGB cell, among the 16 basic colors (0-15)
+    private static final byte[] RGB_TO_16 = new byte[LEVELS * LEVELS * LEVELS];
+    // Nearest basic color of each color of the xterm 256 palette
+    private static final byte[] INDEX_TO_16 = new byte[256];
+    // Index (0-5) of each value of the 6x6x6 cube, or -1 if the value is not in the cube
+    private static final byte[] CUBE_LEVEL = new byte[256];
+    // Index (0-4) of the highest value of the 6x6x6 cube below each value, so the cube colors around a color
+    // are those of this index and the next one
+    private static final byte[] CUBE_BELOW = new byte[256];
+
+    static {
+        int[] basic = {
+                0x000000, 0xCD0000, 0x00CD00, 0xCDCD00, 0x0000EE, 0xCD00CD, 0x00CDCD, 0xE5E5E5,
+                0x7F7F7F, 0xFF0000, 0x00FF00, 0xFFFF00, 0x5C5CFF, 0xFF00FF, 0x00FFFF, 0xFFFFFF};
+        System.arraycopy(basic, 0, XTERM, 0, basic.length);
+        int[] cube = {0, 95, 135, 175, 215, 255};
+        for (int i = 0; i < 216; i++)
+            XTERM[16 + i] = rgb(cube[i / 36], cube[(i / 6) % 6], cube[i % 6]);
+        Arrays.fill(CUBE_LEVEL, (byte) -1);
+        for (int i = 0; i < cube.length; i++)
+            CUBE_LEVEL[cube[i]] = (byte) i;
+        for (int value = 0, level = 0; value < 256; value++) {
+            if (value > cube[level + 1])
+                level++;
+            CUBE_BELOW[value] = (byte) level;
+        }
+        for (int i = 0; i < 24; i++)
+            XTERM[232 + i] = rgb(8 + 10 * i, 8 + 10 * i, 8 + 10 * i);
+
+        for (int i = 0; i < 256; i++)
+            PALETTE[i] = lab(XTERM[i]);
+
+        for (int r = 0; r < LEVELS; r++)
+            for (int g = 0; g < LEVELS; g++)
+                for (int b = 0; b < LEVELS; b++) {
+                    double[] color = lab(rgb(center(r), center(g), center(b)));
+                    int cell = (r << (2 * BITS)) | (g << BITS) | b;
+                    RGB_TO_256[cell] = (byte) nearest(color, 16, 256);
+                    RGB_TO_16[cell] = (byte) nearest(color, 0, 16);
+                }
+        for (int i = 0; i < 256; i++)
+            INDEX_TO_16[i] = (byte) (i < 16 ? i : nearest(PALETTE[i], 0, 16));
+    }
+
+    private ColorPalette() {
+    }
+
+    /**
+     * @return The number (16-255) of the nearest 8-bit color.
+     */
+    static int to256(int r, int g, int b) {
+        int red = CUBE_LEVEL[r], green = CUBE_LEVEL[g], blue = CUBE_LEVEL[b];
+        if ((red | green | blue) >= 0)
+            return 16 + 36 * red + 6 * green + blue;
+        if (r == g && g == b && r >= 8 && r <= 238 && (r - 8) % 10 == 0)
+            return 232 + (r - 8) / 10;
+        return refine(r, g, b, RGB_TO_256[cell(r, g, b)] & 0xFF);
+    }
+
+    /**
+     * @return The number (0-15) of the nearest basic color.
+     */
+    static int to16(int r, int g, int b) {
+        return RGB_TO_16[cell(r, g, b)];
+    }
+
+    /**
+     * @param colorNumber A number (0-255) that represents an 8-bit color.
+     * @return The number (0-15) of the nearest basic color.
+     */
+    static int to16(int colorNumber) {
+        return INDEX_TO_16[colorNumber];
+    }
+
+    private static int cell(int r, int g, int b) {
+        int shift = 8 - BITS;
+        return ((r >> shift) << (2 * BITS)) | ((g >> shift) << BITS) | (b >> shift);
+    }
+
+    // The middle value of a cell, e.g. 4 for the values 0-7
+    private static int center(int level) {
+        return (level << (8 - BITS)) + (1 << (7 - BITS));
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return (r << 16) | (g << 8) | b;
+    }
+
+    // The nearest color to (r, g, b), among the color of its cell, the cube colors up to a level around it,
+    // and the grays
+    private static int refine(int r, int g, int b, int cellColor) {
+        double[] color = lab(rgb(r, g, b));
+        int nearest = cellColor;
+        double nearestDistance = distance(color, PALETTE[cellColor]);
+
+        int red = CUBE_BELOW[r], green = CUBE_BELOW[g], blue = CUBE_BELOW[b];
+        for (int i = Math.max(red - 1, 0); i <= Math.min(red + 2, 5); i++)
+            for (int j = Math.max(green - 1, 0); j <= Math.min(green + 2, 5); j++)
+                for (int k = Math.max(blue - 1, 0); k <= Math.min(blue + 2, 5); k++) {
+                    int candidate = 16 + 36 * i + 6 * j + k;
+                    double distance = distance(color, PALETTE[candidate]);
+                    if (distance < nearestDistance) {
+                        nearest = candidate;
+                        nearestDistance = distance;
+                    }
+                }
+
+        int gray = nearest(color, 232, 256);
+        return (distance(color, PALETTE[gray]) < nearestDistance) ? gray : nearest;
+    }
+
+    private static int nearest(double[] color, int from, int to) {
+        int nearest = from;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            double distance = distance(color, PALETTE[i]);
+            if (distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private static double distance(double[] color, double[] other) {
+        double dL = color[0] - other[0], dA = color[1] - other[1], dB = color[2] - other[2];
+        return dL * dL + dA * dA + dB * dB;
+    }
+
+    // Converts sRGB to CIELAB, with a D65 white point
+    private static double[] lab(int rgb) {
+        double r = linear((rgb >> 16) & 0xFF), g = linear((rgb >> 8) & 0xFF), b = linear(rgb & 0xFF);
+        double x = (0.4124 * r + 0.3576 * g + 0.1805 * b) / 0.95047;
+        double y = (0.2126 * r + 0.7152 * g + 0.0722 * b);
+        double z = (0.0193 * r + 0.1192 * g + 0.9505 * b) / 1.08883;
+        double fx = labCurve(x), fy = labCurve(y), fz = labCurve(z);
+        return new double[]{116 * fy - 16, 500 * (fx - fy), 200 * (fy - fz)};
+    }
+
+    private static double linear(int component) {
+        double c = component / 255.0;
+        return (c <= 0.04045) ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+    private static double labCurve(double t) {
+        return (t > 216.0 / 24389) ? Math.cbrt(t) : (24389.0 / 27 * t + 16) / 116;
+    }
+}
@@ -0,0 +1,216 @@
+package com.diogonunes.jcolor;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes formatted text straight to an {@link OutputStream}, e.g. a file, a socket or stdout.
+ * The ANSI codes of each {@link AnsiFormat} and {@link Ansi#RESET} are kept as bytes, so only the text
+ * itself is encoded, without creating an intermediate String. The output is the same as encoding the result
+ * of {@link AnsiFormat#format(String)}.
+ * <p>
+ * Each message is written to the underlying stream with a single write, when it fits the internal buffer.
+ * If the {@link ColorMode} is OFF, only the text is written. This class is not thread-safe.
+ */
+public class ColorizingOutputStream extends FilterOutputStream {
+
+    private static final byte[] RESET = Ansi.RESET.getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final CharsetEncoder _encoder;
+    private final ByteBuffer _buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Constructor. Encodes text as UTF-8.
+     *
+     * @param out The stream where formatted text is written to.
+     */
+    public ColorizingOutputStream(OutputStream out) {
+        this(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out     The stream where formatted text is written to.
+     * @param charset How text is encoded. It must be compatible with ASCII (e.g. UTF-8, ISO-8859-1),
+     *                because ANSI codes are written as ASCII.
+     */
+    public ColorizingOutputStream(OutputStream out, Charset charset) {
+        super(out);
+        if (!Arrays.equals(Ansi.RESET.getBytes(charset), RESET))
+            throw new IllegalArgumentException("Charset must be compatible with ASCII. Received: " + charset);
+        _encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Encodes and writes the text as it is, without format.
+     *
+     * @param text Text to write.
+     * @throws IOException If the underlying stream fails to write.
+     */
+    public void write(CharSequence text) throws IOException {
+        encode(text, 0, text.length());
+        drain();
+    }
+
+    /**
+     * Encodes and writes the formatted text.
+     *
+     * @param text   Text to format.
+     * @param format Object containing format attributes.
+     * @throws IOException If the underlying stream fails to write.
+     */
+    public void write(CharSequence text, AnsiFormat format) throws IOException {
+        if (Ansi.isColorOff()) {
+            encode(text, 0, text.length());
+            drain();
+            return;
+        }
+
+        byte[] code = format.getCodeBytes();
+        put(code);
+        int lineStart = 0, end = text.length();
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && c != '\r')
+                continue;
+
+            encode(text, lineStart, i);
+            put(RESET);
+            if (c == '\r' && i + 1 < end && text.charAt(i + 1) == '\n') {
+                put((byte) '\r');
+                c = text.charAt(++i);
+            }
+            put((byte) c);
+            put(code);
+            lineStart = i + 1;
+        }
+        encode(text, lineStart, end);
+        put(RESET);
+        drain();
+    }
+
+    /**
+     * Writes the formatted payload, which is already encoded.
+     *
+     * @param payload Text to format, encoded in a charset compatible with ASCII (e.g. UTF-8).
+     * @param offset  Index of the first byte of the text.
+     * @param length  Number of bytes of the text.
+     * @param format  Object containing format attributes.
+     * @throws IOException If the underlying stream fails to write.
+     */
+    public void write(byte[] payload, int offset, int length, AnsiFormat format) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > payload.length)
+            throw new IndexOutOfBoundsException(String.format(
+                    "Range [%d, %d) is out of bounds for length %d", offset, offset + length, payload.length));
+
+        if (Ansi.isColorOff()) {
+            put(payload, offset, length);
+            drain();
+            return;
+        }
+
+        // Bytes of line breaks are the same as their chars, because the payload is compatible with ASCII
+        byte[] code = format.getCodeBytes();
+        put(code);
+        int lineStart = offset, end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = payload[i];
+            if (b != '\n' && b != '\r')
+                continue;
+
+            put(payload, lineStart, i - lineStart);
+            put(RESET);
+            int lineBreakStart = i;
+            if (b == '\r' && i + 1 < end && payload[i + 1] == '\n')
+                i++;
+            put(payload, lineBreakStart, i + 1 - lineBreakStart);
+            put(code);
+            lineStart = i + 1;
+        }
+        put(payload, lineStart, end - lineStart);
+        put(RESET);
+        drain();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        put((byte) b);
+    }
+
+    /**
+     * Writes the bytes as they are, skipping the byte-by-byte write of {@link FilterOutputStream}.
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        drain();
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void encode(CharSequence text, int start, int end) throws IOException {
+        if (start == end)
+            return;
+
+        CharBuffer chars = CharBuffer.wrap(text, start, end);
+        _encoder.reset();
+        CoderResult result;
+        do {
+            result = _encoder.encode(chars, _buffer, true);
+            if (result.isOverflow())
+                drain();
+        } while (result.isOverflow());
+        do {
+            result = _encoder.flush(_buffer);
+            if (result.isOverflow())
+                drain();
+        } while (result.isOverflow());
+    }
+
+    private void put(byte b) throws IOException {
+        if (!_buffer.hasRemaining())
+            drain();
+        _buffer.put(b);
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        put(bytes, 0, bytes.length);
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        if (length > _buffer.remaining()) {
+            drain();
+            if (length > _buffer.capacity()) {
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+        _buffer.put(bytes, offset, length);
+    }
+
+    // Writes the buffered bytes to the underlying stream
+    private void drain() throws IOException {
+        if (_buffer.position() == 0)
+            return;
+        out.write(_buffer.array(), 0, _buffer.position());
+        ((Buffer) _buffer).clear(); // because ByteBuffer.clear() does not exist in Java 8
+    }
+}
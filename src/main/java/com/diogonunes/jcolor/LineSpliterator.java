@@ -0,0 +1,98 @@
+package com.diogonunes.jcolor;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits a text into formatted lines, without line breaks (\n, \r\n or \r), like BufferedReader.lines().
+ * It splits in half at a line break, so that the lines of a large text can be formatted in parallel.
+ */
+final class LineSpliterator implements Spliterator<String> {
+
+    // Below this many chars, splitting costs more than it saves
+    private static final int MIN_SPLIT_LENGTH = 1 << 12;
+
+    private final CharSequence _text;
+    private final String _code;
+    private int _position;
+    private final int _end;
+
+    /**
+     * @param text  Text to split into lines.
+     * @param code  Ansi code to format each line, or null to leave lines as they are.
+     * @param start Index of the first char of the first line.
+     * @param end   Index after the last char of the last line.
+     */
+    LineSpliterator(CharSequence text, String code, int start, int end) {
+        _text = text;
+        _code = code;
+        _position = start;
+        _end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (_position >= _end)
+            return false;
+
+        int lineEnd = _position;
+        while (lineEnd < _end && _text.charAt(lineEnd) != '\n' && _text.charAt(lineEnd) != '\r')
+            lineEnd++;
+        String line = format(_position, lineEnd);
+        _position = skipLineBreak(lineEnd);
+        action.accept(line);
+        return true;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        int length = _end - _position;
+        if (length < MIN_SPLIT_LENGTH)
+            return null;
+
+        // the first half ends after the line break nearest to the middle
+        int middle = _position + length / 2;
+        while (middle < _end && _text.charAt(middle) != '\n' && _text.charAt(middle) != '\r')
+            middle++;
+        if (middle >= _end)
+            return null;
+        middle = skipLineBreak(middle);
+
+        LineSpliterator firstHalf = new LineSpliterator(_text, _code, _position, middle);
+        _position = middle;
+        return firstHalf;
+    }
+
+    /**
+     * @return An estimate, assuming lines of 80 chars.
+     */
+    @Override
+    public long estimateSize() {
+        return (_end - _position) / 80 + 1;
+    }
+
+    /**
+     * Only a String is immutable: other texts, e.g. a StringBuilder, can still be changed by their owner.
+     */
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | ((_text instanceof String) ? IMMUTABLE : 0);
+    }
+
+    private String format(int start, int end) {
+        if (_code == null)
+            return _text.subSequence(start, end).toString();
+        StringBuilder line = new StringBuilder(_code.length() + (end - start) + Ansi.RESET.length());
+        return line.append(_code).append(_text, start, end).append(Ansi.RESET).toString();
+    }
+
+    // Index after the line break (\n, \r\n or \r) at the index, or the index if there is none
+    private int skipLineBreak(int index) {
+        if (index >= _end)
+            return index;
+        char c = _text.charAt(index);
+        if (c == '\r' && index + 1 < _end && _text.charAt(index + 1) == '\n')
+            return index + 2;
+        return (c == '\n' || c == '\r') ? index + 1 : index;
+    }
+}
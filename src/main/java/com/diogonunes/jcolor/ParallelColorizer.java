@@ -0,0 +1,198 @@
+package com.diogonunes.jcolor;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Formats a large text on several threads, with the same output as {@link Ansi#colorize(String, String)}.
+ * The text is split into chunks after a line break (\n), so that each chunk can be formatted on its own:
+ * a line break always resets the format and starts it again. Chunks are formatted on the common ForkJoinPool.
+ */
+final class ParallelColorizer {
+
+    // Below this many chars per chunk, splitting costs more than it saves
+    static final int MIN_CHUNK_LENGTH = 1 << 16;
+    // More chunks than threads, so that threads that finish first take the remaining chunks
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final CharSequence _text;
+    private final String _code;
+    // Start of each chunk, and the end of the text as the last element
+    private final int[] _bounds;
+
+    private ParallelColorizer(CharSequence text, String code, int[] bounds) {
+        _text = text;
+        _code = code;
+        _bounds = bounds;
+    }
+
+    /**
+     * @param text Text to format.
+     * @param code Ansi code to format each line.
+     * @return The formatted text, ready to be printed.
+     */
+    static String format(CharSequence text, String code) {
+        if (Ansi.isColorOff())
+            return text.toString();
+        ParallelColorizer colorizer = split(text, code);
+        if (colorizer.getChunkCount() == 1) {
+            StringBuilder output = new StringBuilder(
+                    Ansi.colorizedLength(text, 0, text.length(), code, ResetPolicy.EACH_LINE));
+            Ansi.appendColorized(output, text, 0, text.length(), code, ResetPolicy.EACH_LINE);
+            return output.toString();
+        }
+        return colorizer.formatChunks();
+    }
+
+    /**
+     * Writes the formatted chunks to the output in order, as soon as each one is ready. Only a few chunks
+     * are formatted ahead of the one being written, so the output does not need to hold the whole text.
+     *
+     * @param output Where the formatted text is written to.
+     * @param text   Text to format.
+     * @param code   Ansi code to format each line.
+     */
+    static void formatTo(Appendable output, CharSequence text, String code) throws IOException {
+        if (Ansi.isColorOff()) {
+            Ansi.appendText(output, text, 0, text.length());
+            return;
+        }
+        ParallelColorizer colorizer = split(text, code);
+        if (colorizer.getChunkCount() == 1) {
+            Ansi.appendColorized(output, text, 0, text.length(), code, ResetPolicy.EACH_LINE);
+            return;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = 2 * pool.getParallelism();
+        Deque<ForkJoinTask<String>> pending = new ArrayDeque<>();
+        output.append(code);
+        for (int chunk = 0; chunk < colorizer.getChunkCount(); chunk++) {
+            int index = chunk;
+            pending.add(pool.submit(() -> colorizer.formatChunk(index)));
+            if (pending.size() >= window)
+                output.append(pending.poll().join());
+        }
+        while (!pending.isEmpty())
+            output.append(pending.poll().join());
+        output.append(Ansi.RESET);
+    }
+
+    private static ParallelColorizer split(CharSequence text, String code) {
+        int length = text.length();
+        int maxChunks = CHUNKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism();
+        int chunkLength = Math.max(MIN_CHUNK_LENGTH, length / Math.max(1, maxChunks));
+
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int next = chunkLength;
+        while (next < length) {
+            int lineEnd = indexOf(text, '\n', next);
+            if (lineEnd < 0 || lineEnd + 1 >= length)
+                break;
+            bounds.add(lineEnd + 1);
+            next = lineEnd + 1 + chunkLength;
+        }
+        bounds.add(length);
+
+        int[] array = new int[bounds.size()];
+        for (int i = 0; i < array.length; i++)
+            array[i] = bounds.get(i);
+        return new ParallelColorizer(text, code, array);
+    }
+
+    private int getChunkCount() {
+        return _bounds.length - 1;
+    }
+
+    /**
+     * Counts the line breaks of each chunk in parallel, to know where its output starts. Then each chunk
+     * is written in parallel straight into its place, so the output is copied only once, into the String.
+     */
+    private String formatChunks() {
+        int chunkCount = getChunkCount();
+        int[] lineBreaks = new int[chunkCount];
+        runInParallel(chunk -> lineBreaks[chunk] = Ansi.countLineBreaks(_text, _bounds[chunk], _bounds[chunk + 1]));
+
+        int lineBreakLength = Ansi.RESET.length() + _code.length();
+        int[] outputStarts = new int[chunkCount];
+        int outputLength = _code.length();
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            outputStarts[chunk] = outputLength;
+            outputLength += (_bounds[chunk + 1] - _bounds[chunk]) + lineBreaks[chunk] * lineBreakLength;
+        }
+        char[] output = new char[outputLength + Ansi.RESET.length()];
+
+        _code.getChars(0, _code.length(), output, 0);
+        runInParallel(chunk -> writeChunk(chunk, output, outputStarts[chunk]));
+        Ansi.RESET.getChars(0, Ansi.RESET.length(), output, outputLength);
+        return new String(output);
+    }
+
+    private String formatChunk(int chunk) throws IOException {
+        int start = _bounds[chunk], end = _bounds[chunk + 1];
+        int lineBreaks = Ansi.countLineBreaks(_text, start, end);
+        StringBuilder output = new StringBuilder((end - start) + lineBreaks * (Ansi.RESET.length() + _code.length()));
+        Ansi.appendLines(output, _text, start, end, _code);
+        return output.toString();
+    }
+
+    // Same as Ansi.appendLines, but into an array
+    private void writeChunk(int chunk, char[] output, int outputStart) {
+        int end = _bounds[chunk + 1], lineStart = _bounds[chunk], position = outputStart;
+        for (int i = lineStart; i < end; i++) {
+            char c = _text.charAt(i);
+            if (c != '\n' && c != '\r')
+                continue;
+
+            position = copy(_text, lineStart, i, output, position);
+            position = copy(Ansi.RESET, 0, Ansi.RESET.length(), output, position);
+            int lineBreakStart = i;
+            if (c == '\r' && i + 1 < end && _text.charAt(i + 1) == '\n')
+                i++;
+            position = copy(_text, lineBreakStart, i + 1, output, position);
+            position = copy(_code, 0, _code.length(), output, position);
+            lineStart = i + 1;
+        }
+        copy(_text, lineStart, end, output, position);
+    }
+
+    private void runInParallel(ChunkAction action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(getChunkCount());
+        for (int chunk = 0; chunk < getChunkCount(); chunk++) {
+            int index = chunk;
+            tasks.add(ForkJoinTask.adapt(() -> action.run(index)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    private static int copy(CharSequence text, int start, int end, char[] output, int position) {
+        if (text instanceof String)
+            ((String) text).getChars(start, end, output, position);
+        else
+            for (int i = start; i < end; i++)
+                output[position + i - start] = text.charAt(i);
+        return position + (end - start);
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        if (text instanceof String)
+            return ((String) text).indexOf(c, from);
+        for (int i = from; i < text.length(); i++)
+            if (text.charAt(i) == c)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Work done on a chunk, by its index.
+     */
+    private interface ChunkAction {
+        void run(int chunk);
+    }
+}
@@ -0,0 +1,26 @@
+package com.diogonunes.jcolor;
+
+/**
+ * Describes where a formatted text resets the terminal's format, see {@link Ansi#RESET}.
+ */
+public enum ResetPolicy {
+
+    /**
+     * Resets the format before each line break and restarts it after. This is the default, because it
+     * prevents the format from "spilling" into a line without text, which is noticeable when the background
+     * is colored. Line breaks can be {@code \n}, {@code \r\n} or {@code \r}.
+     */
+    EACH_LINE,
+
+    /**
+     * Resets the format once, at the end of the text. Line breaks are not searched, so this is the cheapest
+     * option for text that you know has a single line.
+     */
+    WHOLE_BLOCK,
+
+    /**
+     * Never resets the format, so it applies to everything printed after the text, until you print
+     * {@link Ansi#RESET} yourself.
+     */
+    NONE
+}
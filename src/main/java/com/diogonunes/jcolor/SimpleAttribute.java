@@ -2,7 +2,18 @@ package com.diogonunes.jcolor;
 
 class SimpleAttribute extends Attribute {
 
+    static final SimpleAttribute NONE = new SimpleAttribute("");
+
+    // Covers every SGR code used by the factory methods of Attribute (0-107)
+    private static final SimpleAttribute[] CODES = new SimpleAttribute[108];
+
+    static {
+        for (int code = 0; code < CODES.length; code++)
+            CODES[code] = new SimpleAttribute(String.valueOf(code));
+    }
+
     private final String _code;
+    private final int _number;
 
     /**
      * Constructor. Maps an attribute to an Ansi code.
@@ -11,6 +22,24 @@ class SimpleAttribute extends Attribute {
      */
     SimpleAttribute(String code) {
         _code = code;
+        _number = code.isEmpty() ? -1 : Integer.parseInt(code);
+    }
+
+    /**
+     * @param code Ansi code that represents the attribute.
+     * @return The shared instance that represents that code.
+     */
+    static SimpleAttribute of(int code) {
+        if (0 <= code && code < CODES.length)
+            return CODES[code];
+        return new SimpleAttribute(String.valueOf(code));
+    }
+
+    /**
+     * @return The Ansi code as a number, or -1 if the attribute has no code.
+     */
+    int getCode() {
+        return _number;
     }
 
     @Override
@@ -18,4 +47,18 @@ class SimpleAttribute extends Attribute {
         return _code;
     }
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (other == null || getClass() != other.getClass())
+            return false;
+        return _code.equals(((SimpleAttribute) other)._code);
+    }
+
+    @Override
+    public int hashCode() {
+        return _code.hashCode();
+    }
+
 }
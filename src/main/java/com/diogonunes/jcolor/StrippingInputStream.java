@@ -0,0 +1,83 @@
+package com.diogonunes.jcolor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Removes escape sequences from every byte read through it, see {@link AnsiStripper#stripping(InputStream)}.
+ */
+class StrippingInputStream extends FilterInputStream {
+
+    private int _state = AnsiStripper.TEXT;
+
+    StrippingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b;
+        do {
+            b = in.read();
+            if (b < 0)
+                return b;
+            _state = AnsiStripper.next(_state, b);
+        } while (_state != AnsiStripper.TEXT);
+        return b;
+    }
+
+    /**
+     * Reads into the buffer and then removes the escape sequences in place.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        int visible;
+        do {
+            int read = in.read(b, off, len);
+            if (read < 0)
+                return read;
+            visible = 0;
+            for (int i = off; i < off + read; i++) {
+                _state = AnsiStripper.next(_state, b[i] & 0xFF);
+                if (_state == AnsiStripper.TEXT)
+                    b[off + visible++] = b[i];
+            }
+        } while (visible == 0); // an InputStream can only return 0 when asked for 0 bytes
+        return visible;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.max(0, Math.min(n, 8192))];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+            if (read < 0)
+                break;
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return 0; // because the next bytes may all be part of an escape sequence
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
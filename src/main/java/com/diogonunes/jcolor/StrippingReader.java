@@ -0,0 +1,90 @@
+package com.diogonunes.jcolor;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Removes escape sequences from everything read through it, see {@link AnsiStripper#stripping(Reader)}.
+ */
+class StrippingReader extends FilterReader {
+
+    private int _state = AnsiStripper.TEXT;
+
+    StrippingReader(Reader in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        synchronized (lock) {
+            int c;
+            do {
+                c = in.read();
+                if (c < 0)
+                    return c;
+                _state = AnsiStripper.next(_state, c);
+            } while (_state != AnsiStripper.TEXT);
+            return c;
+        }
+    }
+
+    /**
+     * Reads into the buffer and then removes the escape sequences in place.
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            if (len == 0)
+                return 0;
+            int visible;
+            do {
+                int read = in.read(cbuf, off, len);
+                if (read < 0)
+                    return read;
+                visible = 0;
+                for (int i = off; i < off + read; i++) {
+                    _state = AnsiStripper.next(_state, cbuf[i]);
+                    if (_state == AnsiStripper.TEXT)
+                        cbuf[off + visible++] = cbuf[i];
+                }
+            } while (visible == 0); // a Reader can only return 0 when asked for 0 chars
+            return visible;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0L)
+            throw new IllegalArgumentException("Skip value is negative");
+        char[] buffer = new char[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+            if (read < 0)
+                break;
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return false; // because the next chars may all be part of an escape sequence
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+}
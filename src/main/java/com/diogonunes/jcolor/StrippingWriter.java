@@ -0,0 +1,56 @@
+package com.diogonunes.jcolor;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Removes escape sequences from everything written through it, see {@link AnsiStripper#stripping(Writer)}.
+ */
+class StrippingWriter extends FilterWriter {
+
+    private int _state = AnsiStripper.TEXT;
+
+    StrippingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        synchronized (lock) {
+            _state = AnsiStripper.next(_state, (char) c);
+            if (_state == AnsiStripper.TEXT)
+                out.write(c);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            int runStart = off, end = off + len;
+            for (int i = off; i < end; i++) {
+                _state = AnsiStripper.next(_state, cbuf[i]);
+                if (_state == AnsiStripper.TEXT)
+                    continue;
+                out.write(cbuf, runStart, i - runStart);
+                runStart = i + 1;
+            }
+            out.write(cbuf, runStart, end - runStart);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            int runStart = off, end = off + len;
+            for (int i = off; i < end; i++) {
+                _state = AnsiStripper.next(_state, str.charAt(i));
+                if (_state == AnsiStripper.TEXT)
+                    continue;
+                out.write(str, runStart, i - runStart);
+                runStart = i + 1;
+            }
+            out.write(str, runStart, end - runStart);
+        }
+    }
+}
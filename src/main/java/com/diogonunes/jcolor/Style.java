@@ -0,0 +1,300 @@
+package com.diogonunes.jcolor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The format that a terminal applies to text, packed in two longs, so that styles can be compared,
+ * merged and diffed without creating any object. Attributes and formats convert to and from it.
+ * <p>
+ * Effects are a bitmask, where bit n is set when the effect with code n is on, e.g. bit 1 for BOLD().
+ * Colors are ints: 0 is the terminal's default color, otherwise the top byte tells its type
+ * (basic, 8-bit or true color) and the lower 3 bytes its number or RGB components.
+ */
+final class Style {
+
+    /**
+     * The terminal's default format: no effects and default colors.
+     */
+    static final Style DEFAULT = new Style(0, 0);
+
+    static final int DEFAULT_COLOR = 0;
+    private static final int BASIC = 1 << 24;
+    private static final int INDEXED = 2 << 24;
+    private static final int RGB = 3 << 24;
+    private static final int TYPE = 0xFF << 24;
+    private static final int VALUE = 0xFFFFFF;
+
+    // Codes that turn off effects, and the effects that each one turns off
+    private static final int[] OFF_CODES = {22, 23, 24, 25, 27, 28, 29, 54, 55};
+    private static final long[] OFF_EFFECTS = {
+            bit(1) | bit(2), bit(3), bit(4) | bit(21), bit(5) | bit(6), bit(7), bit(8), bit(9),
+            bit(51) | bit(52), bit(53)};
+
+    private final long _effects;
+    // Foreground in the high 32 bits, background in the low 32 bits
+    private final long _colors;
+
+    private Style(long effects, long colors) {
+        _effects = effects;
+        _colors = colors;
+    }
+
+    /**
+     * @param effects    Bitmask of effects, where bit n is set when the effect with code n is on.
+     * @param foreground Packed foreground color.
+     * @param background Packed background color.
+     * @return The style with those effects and colors.
+     */
+    static Style of(long effects, int foreground, int background) {
+        if (effects == 0 && foreground == DEFAULT_COLOR && background == DEFAULT_COLOR)
+            return DEFAULT;
+        return new Style(effects, pack(foreground, background));
+    }
+
+    /**
+     * Applies the attributes in order, like a terminal does: a later color replaces an earlier one,
+     * and CLEAR() drops everything before it.
+     *
+     * @param attributes ANSI attributes to format a text.
+     * @return The style of a text formatted with those attributes.
+     * @throws IllegalArgumentException If an attribute does not describe a format, e.g. a custom subclass.
+     */
+    static Style of(Attribute... attributes) {
+        long effects = 0;
+        int foreground = DEFAULT_COLOR, background = DEFAULT_COLOR;
+        for (Attribute attribute : attributes) {
+            if (attribute instanceof ColorAttribute) {
+                int color = ((ColorAttribute) attribute).getColor();
+                if (attribute instanceof TextColorAttribute)
+                    foreground = color;
+                else
+                    background = color;
+                continue;
+            }
+            if (!(attribute instanceof SimpleAttribute))
+                throw new IllegalArgumentException("Attribute can't be converted into a style: " + attribute);
+
+            int code = ((SimpleAttribute) attribute).getCode();
+            if (code < 0)
+                continue; // NONE()
+            if (code == 0) {
+                effects = 0;
+                foreground = background = DEFAULT_COLOR;
+            } else if ((30 <= code && code <= 37) || (90 <= code && code <= 97)) {
+                foreground = basicColor(code < 90 ? code - 30 : code - 90 + 8);
+            } else if ((40 <= code && code <= 47) || (100 <= code && code <= 107)) {
+                background = basicColor(code < 100 ? code - 40 : code - 100 + 8);
+            } else if (code == 39) {
+                foreground = DEFAULT_COLOR;
+            } else if (code == 49) {
+                background = DEFAULT_COLOR;
+            } else if (offIndex(code) >= 0) {
+                effects &= ~OFF_EFFECTS[offIndex(code)];
+            } else if (code < 64 && code != 38 && code != 48) {
+                effects |= bit(code);
+            } else
+                throw new IllegalArgumentException("Attribute can't be converted into a style: " + attribute);
+        }
+        return of(effects, foreground, background);
+    }
+
+    long getEffects() {
+        return _effects;
+    }
+
+    /**
+     * @return Both colors, the foreground in the high 32 bits.
+     */
+    long getColors() {
+        return _colors;
+    }
+
+    int getForeground() {
+        return (int) (_colors >>> 32);
+    }
+
+    int getBackground() {
+        return (int) _colors;
+    }
+
+    /**
+     * @param style Style applied on top of this one.
+     * @return A style with the effects of both, and the colors of the given style, where it sets them.
+     */
+    Style merge(Style style) {
+        int foreground = style.getForeground() != DEFAULT_COLOR ? style.getForeground() : getForeground();
+        int background = style.getBackground() != DEFAULT_COLOR ? style.getBackground() : getBackground();
+        return of(_effects | style._effects, foreground, background);
+    }
+
+    /**
+     * Describes the change from this style to the next one, e.g. to format consecutive spans of text
+     * without resetting the format between them. Effects that are no longer used are turned off by their
+     * own codes (e.g. 22 for BOLD() and DIM()), and only the colors that change are set.
+     *
+     * @param next Style that follows this one.
+     * @return The attributes that turn this style into the next one. Empty if both are the same.
+     */
+    Attribute[] diff(Style next) {
+        if (equals(next))
+            return new Attribute[0];
+
+        List<Attribute> attributes = new ArrayList<>();
+        long removed = _effects & ~next._effects;
+        long added = next._effects & ~_effects;
+        for (int i = 0; i < OFF_CODES.length; i++) {
+            if ((removed & OFF_EFFECTS[i]) == 0)
+                continue;
+            attributes.add(SimpleAttribute.of(OFF_CODES[i]));
+            removed &= ~OFF_EFFECTS[i];
+            // e.g. 22 turns off both BOLD() and DIM(), so the one that stays is turned on again
+            added |= OFF_EFFECTS[i] & next._effects;
+        }
+        if (removed != 0) {
+            // an effect without its own code to turn it off, so start from the default format
+            attributes.clear();
+            attributes.add(SimpleAttribute.of(0));
+            addAll(attributes, next);
+            return attributes.toArray(new Attribute[0]);
+        }
+
+        addEffects(attributes, added);
+        if (getForeground() != next.getForeground())
+            attributes.add(next.getForeground() == DEFAULT_COLOR
+                    ? SimpleAttribute.of(39) : toForeground(next.getForeground()));
+        if (getBackground() != next.getBackground())
+            attributes.add(next.getBackground() == DEFAULT_COLOR
+                    ? SimpleAttribute.of(49) : toBackground(next.getBackground()));
+        return attributes.toArray(new Attribute[0]);
+    }
+
+    /**
+     * @return The attributes that describe this style: effects by code, then foreground and background.
+     */
+    Attribute[] toAttributes() {
+        List<Attribute> attributes = new ArrayList<>();
+        addAll(attributes, this);
+        return attributes.toArray(new Attribute[0]);
+    }
+
+    /**
+     * @return A format with the attributes of this style.
+     */
+    AnsiFormat toFormat() {
+        return new AnsiFormat(toAttributes());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof Style))
+            return false;
+        Style style = (Style) other;
+        return _effects == style._effects && _colors == style._colors;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(_effects) + Long.hashCode(_colors);
+    }
+
+    // Packed colors
+
+    /**
+     * @param colorNumber A number (0-15) that represents a basic color, e.g. 1 for RED_TEXT().
+     */
+    static int basicColor(int colorNumber) {
+        return BASIC | colorNumber;
+    }
+
+    /**
+     * @param colorNumber A number (0-255) that represents an 8-bit color.
+     */
+    static int indexedColor(int colorNumber) {
+        return INDEXED | colorNumber;
+    }
+
+    static int rgbColor(int r, int g, int b) {
+        return RGB | (r << 16) | (g << 8) | b;
+    }
+
+    static boolean isBasicColor(int color) {
+        return (color & TYPE) == BASIC;
+    }
+
+    static boolean isIndexedColor(int color) {
+        return (color & TYPE) == INDEXED;
+    }
+
+    static boolean isRgbColor(int color) {
+        return (color & TYPE) == RGB;
+    }
+
+    /**
+     * @return The number of a basic or 8-bit color.
+     */
+    static int colorNumber(int color) {
+        return color & VALUE;
+    }
+
+    static int red(int color) {
+        return (color >> 16) & 0xFF;
+    }
+
+    static int green(int color) {
+        return (color >> 8) & 0xFF;
+    }
+
+    static int blue(int color) {
+        return color & 0xFF;
+    }
+
+    private static Attribute toForeground(int color) {
+        if (isBasicColor(color))
+            return SimpleAttribute.of(colorNumber(color) < 8 ? 30 + colorNumber(color) : 90 + colorNumber(color) - 8);
+        if (isIndexedColor(color))
+            return TextColorAttribute.of(colorNumber(color));
+        return new TextColorAttribute(red(color), green(color), blue(color));
+    }
+
+    private static Attribute toBackground(int color) {
+        if (isBasicColor(color))
+            return SimpleAttribute.of(colorNumber(color) < 8 ? 40 + colorNumber(color) : 100 + colorNumber(color) - 8);
+        if (isIndexedColor(color))
+            return BackColorAttribute.of(colorNumber(color));
+        return new BackColorAttribute(red(color), green(color), blue(color));
+    }
+
+    private static void addAll(List<Attribute> attributes, Style style) {
+        addEffects(attributes, style._effects);
+        if (style.getForeground() != DEFAULT_COLOR)
+            attributes.add(toForeground(style.getForeground()));
+        if (style.getBackground() != DEFAULT_COLOR)
+            attributes.add(toBackground(style.getBackground()));
+    }
+
+    private static void addEffects(List<Attribute> attributes, long effects) {
+        while (effects != 0) {
+            int code = Long.numberOfTrailingZeros(effects);
+            attributes.add(SimpleAttribute.of(code));
+            effects &= effects - 1;
+        }
+    }
+
+    private static int offIndex(int code) {
+        for (int i = 0; i < OFF_CODES.length; i++)
+            if (OFF_CODES[i] == code)
+                return i;
+        return -1;
+    }
+
+    private static long bit(int code) {
+        return 1L << code;
+    }
+
+    private static long pack(int foreground, int background) {
+        return ((long) foreground << 32) | (background & 0xFFFFFFFFL);
+    }
+}
@@ -2,6 +2,13 @@ package com.diogonunes.jcolor;
 
 class TextColorAttribute extends ColorAttribute {
 
+    private static final TextColorAttribute[] INDEXED = new TextColorAttribute[256];
+
+    static {
+        for (int colorNumber = 0; colorNumber < INDEXED.length; colorNumber++)
+            INDEXED[colorNumber] = new TextColorAttribute(colorNumber);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -16,6 +23,16 @@ class TextColorAttribute extends ColorAttribute {
         super(r, g, b);
     }
 
+    /**
+     * @param colorNumber A number (0-255) that represents an 8-bit color.
+     * @return The shared instance that represents a foreground with that 8-bit color.
+     */
+    static TextColorAttribute of(int colorNumber) {
+        if (0 <= colorNumber && colorNumber < INDEXED.length)
+            return INDEXED[colorNumber];
+        return new TextColorAttribute(colorNumber); // rejects the out of range color
+    }
+
     @Override
     protected String getColorAnsiPrefix() {
         String ANSI_8BIT_COLOR_PREFIX = "38;5;";
@@ -24,4 +41,15 @@ class TextColorAttribute extends ColorAttribute {
         return isTrueColor() ? ANSI_TRUE_COLOR_PREFIX : ANSI_8BIT_COLOR_PREFIX;
     }
 
+    @Override
+    protected ColorAttribute getIndexedColor(int colorNumber) {
+        return of(colorNumber);
+    }
+
+    @Override
+    protected Attribute getBasicColor(int colorNumber) {
+        // e.g. RED_TEXT() is 31, BRIGHT_RED_TEXT() is 91
+        return SimpleAttribute.of(colorNumber < 8 ? 30 + colorNumber : 90 + (colorNumber - 8));
+    }
+
 }
@@ -0,0 +1,164 @@
+package com.diogonunes.jcolor.logging;
+
+import com.diogonunes.jcolor.AnsiFormat;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+/**
+ * Formats log records of java.util.logging with a format for each {@link Level}, e.g.
+ * <pre>
+ * 2024-01-31 12:00:00.000 SEVERE  com.example.Service: Connection lost
+ * </pre>
+ * where the timestamp and the level are formatted, and so is the stack trace of an exception.
+ * Formats are created once, and each record is written into a buffer reused by each thread.
+ * <p>
+ * To use it, set it as the formatter of a handler in logging.properties. Each format is a list of
+ * attribute names, see {@link AnsiFormat#parse(String)}, and an empty list leaves the text as it is:
+ * <pre>
+ * java.util.logging.ConsoleHandler.formatter = com.diogonunes.jcolor.logging.JColorFormatter
+ * com.diogonunes.jcolor.logging.JColorFormatter.severe = bold, red
+ * com.diogonunes.jcolor.logging.JColorFormatter.warning = yellow
+ * com.diogonunes.jcolor.logging.JColorFormatter.time = bright_black
+ * com.diogonunes.jcolor.logging.JColorFormatter.timePattern = HH:mm:ss.SSS
+ * </pre>
+ * The other levels are info, config, fine, finer and finest. A custom level uses the format of
+ * the nearest standard level below it.
+ */
+public class JColorFormatter extends Formatter {
+
+    private static final String PREFIX = JColorFormatter.class.getName() + ".";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    // Buffers larger than this, after a huge record, are not kept
+    private static final int MAX_KEPT_CAPACITY = 1 << 16;
+    private static final int LEVEL_WIDTH = 7; // "WARNING".length()
+
+    // Standard levels, from the highest, and their default formats
+    private static final Level[] LEVELS = {
+            Level.SEVERE, Level.WARNING, Level.INFO, Level.CONFIG, Level.FINE, Level.FINER, Level.FINEST};
+    private static final String[] DEFAULT_FORMATS = {
+            "bold, red", "yellow", "green", "cyan", "bright_black", "bright_black", "bright_black"};
+
+    private final AnsiFormat[] _levelFormats = new AnsiFormat[LEVELS.length];
+    private final AnsiFormat _timeFormat;
+    private final DateTimeFormatter _timePattern;
+    private final ThreadLocal<Buffers> _buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Constructor. Reads its configuration from the LogManager, e.g. from logging.properties.
+     */
+    public JColorFormatter() {
+        this(LogManager.getLogManager()::getProperty);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param properties Configuration, with the same keys as logging.properties.
+     * @throws IllegalArgumentException If a format has an unknown attribute, or the time pattern is invalid.
+     */
+    public JColorFormatter(Properties properties) {
+        this(properties::getProperty);
+    }
+
+    private JColorFormatter(Function<String, String> properties) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            String key = PREFIX + LEVELS[i].getName().toLowerCase(Locale.ROOT);
+            _levelFormats[i] = parseFormat(properties.apply(key), DEFAULT_FORMATS[i]);
+        }
+        _timeFormat = parseFormat(properties.apply(PREFIX + "time"), "bright_black");
+        String timePattern = properties.apply(PREFIX + "timePattern");
+        _timePattern = DateTimeFormatter
+                .ofPattern(timePattern != null ? timePattern.trim() : "yyyy-MM-dd HH:mm:ss.SSS")
+                .withZone(ZoneId.systemDefault());
+    }
+
+    @Override
+    public String format(LogRecord record) {
+        Buffers buffers = _buffers.get();
+        StringBuilder output = buffers.clear();
+        AnsiFormat levelFormat = getLevelFormat(record.getLevel());
+
+        _timePattern.formatTo(Instant.ofEpochMilli(record.getMillis()), buffers._part);
+        append(output, buffers._part, _timeFormat);
+        output.append(' ');
+
+        String levelName = record.getLevel().getName();
+        append(output, levelName, levelFormat);
+        for (int i = levelName.length(); i < LEVEL_WIDTH; i++)
+            output.append(' ');
+        output.append(' ');
+
+        if (record.getLoggerName() != null)
+            output.append(record.getLoggerName()).append(": ");
+        output.append(formatMessage(record)).append(LINE_SEPARATOR);
+
+        if (record.getThrown() != null) {
+            record.getThrown().printStackTrace(buffers._stackTraceWriter);
+            buffers._stackTraceWriter.flush();
+            StringBuffer stackTrace = buffers._stackTrace.getBuffer();
+            // the last line break is written after the format is reset, like the message's
+            if (stackTrace.lastIndexOf(LINE_SEPARATOR) == stackTrace.length() - LINE_SEPARATOR.length())
+                stackTrace.setLength(stackTrace.length() - LINE_SEPARATOR.length());
+            append(output, stackTrace, levelFormat);
+            output.append(LINE_SEPARATOR);
+        }
+        return output.toString();
+    }
+
+    /**
+     * @param level Level of a record.
+     * @return The format of the level, or of the nearest standard level below it. Null if it has no format.
+     */
+    private AnsiFormat getLevelFormat(Level level) {
+        for (int i = 0; i < LEVELS.length; i++)
+            if (level.intValue() >= LEVELS[i].intValue())
+                return _levelFormats[i];
+        return _levelFormats[LEVELS.length - 1];
+    }
+
+    private static void append(StringBuilder output, CharSequence text, AnsiFormat format) {
+        if (format == null)
+            output.append(text);
+        else
+            format.formatTo(output, text);
+    }
+
+    private static AnsiFormat parseFormat(String names, String defaultNames) {
+        String value = (names != null) ? names : defaultNames;
+        return value.trim().isEmpty() ? null : AnsiFormat.parse(value);
+    }
+
+    /**
+     * Buffers of a thread, reused for each record.
+     */
+    private static final class Buffers {
+        private StringBuilder _output = new StringBuilder(256);
+        private final StringBuilder _part = new StringBuilder(32);
+        private StringWriter _stackTrace = new StringWriter(1024);
+        private PrintWriter _stackTraceWriter = new PrintWriter(_stackTrace);
+
+        private StringBuilder clear() {
+            if (_output.capacity() > MAX_KEPT_CAPACITY)
+                _output = new StringBuilder(256);
+            if (_stackTrace.getBuffer().capacity() > MAX_KEPT_CAPACITY) {
+                _stackTrace = new StringWriter(1024);
+                _stackTraceWriter = new PrintWriter(_stackTrace);
+            }
+            _output.setLength(0);
+            _part.setLength(0);
+            _stackTrace.getBuffer().setLength(0);
+            return _output;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.diogonunes.jcolor.logging;
+
+import com.diogonunes.jcolor.AnsiFormat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Chooses the format of a log event from its level, or from a value of its MDC (mapped diagnostic context).
+ * It is shared by the converters of logging frameworks, e.g. Logback and Log4j2. Formats are created once,
+ * from options such as:
+ * <pre>
+ * ERROR=bold, red
+ * WARN=yellow
+ * tenant:acme=magenta
+ * requestId:*=italic
+ * </pre>
+ * A level is mapped by its name, case-insensitive. A value of the MDC is mapped as "key:value", and "key:*"
+ * maps any value of the key. MDC mappings are checked first, in the order of their keys; then the level.
+ * Levels without a mapping use the default formats, and an empty list of names leaves the text as it is.
+ */
+public final class LogEventFormats {
+
+    private static final String ANY_VALUE = "*";
+    private static final Map<String, String> DEFAULT_LEVEL_FORMATS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_LEVEL_FORMATS.put("FATAL", "bold, red");
+        DEFAULT_LEVEL_FORMATS.put("ERROR", "bold, red");
+        DEFAULT_LEVEL_FORMATS.put("WARN", "yellow");
+        DEFAULT_LEVEL_FORMATS.put("INFO", "green");
+        DEFAULT_LEVEL_FORMATS.put("DEBUG", "cyan");
+        DEFAULT_LEVEL_FORMATS.put("TRACE", "bright_black");
+    }
+
+    // By upper-case name. A null format leaves the text as it is.
+    private final Map<String, AnsiFormat> _levelFormats = new HashMap<>();
+    private final List<MdcFormats> _mdcFormats = new ArrayList<>();
+
+    private LogEventFormats() {
+    }
+
+    /**
+     * @return The default formats of the levels, without MDC mappings.
+     */
+    public static LogEventFormats defaults() {
+        return parse(new ArrayList<>());
+    }
+
+    /**
+     * @param options Mappings such as "ERROR=bold, red" or "tenant:acme=magenta". Blank options are ignored.
+     * @return The formats of those mappings, and the default formats of the other levels.
+     * @throws IllegalArgumentException If an option has no '=', or a format has an unknown attribute.
+     */
+    public static LogEventFormats parse(Iterable<String> options) {
+        LogEventFormats formats = new LogEventFormats();
+        for (Map.Entry<String, String> level : DEFAULT_LEVEL_FORMATS.entrySet())
+            formats._levelFormats.put(level.getKey(), parseFormat(level.getValue()));
+
+        for (String option : options) {
+            if (option == null || option.trim().isEmpty())
+                continue;
+            int separator = option.indexOf('=');
+            if (separator < 0)
+                throw new IllegalArgumentException("Expected 'LEVEL=format' or 'key:value=format'. Received: " + option);
+            String name = option.substring(0, separator).trim();
+            AnsiFormat format = parseFormat(option.substring(separator + 1));
+
+            int keySeparator = name.indexOf(':');
+            if (keySeparator < 0)
+                formats._levelFormats.put(name.toUpperCase(Locale.ROOT), format);
+            else
+                formats.getMdcFormats(name.substring(0, keySeparator).trim())
+                        .put(name.substring(keySeparator + 1).trim(), format);
+        }
+        return formats;
+    }
+
+    /**
+     * @param level Name of the level of the event, e.g. "ERROR".
+     * @param mdc   Value of each key in the MDC of the event, or null if it does not have the key.
+     * @return The format of the event, or null if its text is left as it is.
+     */
+    public AnsiFormat getFormat(String level, Function<String, String> mdc) {
+        for (MdcFormats mdcFormats : _mdcFormats) {
+            String value = mdc.apply(mdcFormats._key);
+            if (value == null)
+                continue;
+            if (mdcFormats._valueFormats.containsKey(value))
+                return mdcFormats._valueFormats.get(value);
+            if (mdcFormats._valueFormats.containsKey(ANY_VALUE))
+                return mdcFormats._valueFormats.get(ANY_VALUE);
+        }
+        return getFormat(level);
+    }
+
+    /**
+     * @param level Name of the level of the event, e.g. "ERROR".
+     * @return The format of the level, or null if its text is left as it is.
+     */
+    public AnsiFormat getFormat(String level) {
+        AnsiFormat format = _levelFormats.get(level);
+        return (format != null || _levelFormats.containsKey(level))
+                ? format : _levelFormats.get(level.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return True if some format depends on the MDC, so converters can skip reading it otherwise.
+     */
+    public boolean hasMdcFormats() {
+        return !_mdcFormats.isEmpty();
+    }
+
+    private Map<String, AnsiFormat> getMdcFormats(String key) {
+        for (MdcFormats mdcFormats : _mdcFormats)
+            if (mdcFormats._key.equals(key))
+                return mdcFormats._valueFormats;
+        MdcFormats mdcFormats = new MdcFormats(key);
+        _mdcFormats.add(mdcFormats);
+        return mdcFormats._valueFormats;
+    }
+
+    private static AnsiFormat parseFormat(String names) {
+        return names.trim().isEmpty() ? null : AnsiFormat.parse(names);
+    }
+
+    /**
+     * Formats of the values of an MDC key.
+     */
+    private static final class MdcFormats {
+        private final String _key;
+        private final Map<String, AnsiFormat> _valueFormats = new HashMap<>();
+
+        private MdcFormats(String key) {
+            _key = key;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.diogonunes.jcolor;
+
+import org.junit.jupiter.api.Test;
+
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that attributes and formats are packed into a Style, and back. Style is package-private,
+ * so these tests live in the same package.
+ */
+public class TestStyle {
+
+    @Test
+    public void Style_SameAttributes_AreEqual() {
+        // ARRANGE
+        Style style = Style.of(BOLD(), TEXT_COLOR(255, 0, 0), BLUE_BACK());
+
+        // ACT
+        Style sameStyle = Style.of(BLUE_BACK(), BOLD(), TEXT_COLOR(255, 0, 0));
+
+        // ASSERT
+        assertThat(style, equalTo(sameStyle));
+        assertThat(style.hashCode(), equalTo(sameStyle.hashCode()));
+        assertThat(style, not(equalTo(Style.of(BOLD(), TEXT_COLOR(196), BLUE_BACK()))));
+    }
+
+    @Test
+    public void Style_LaterAttributes_OverrideEarlierOnes() {
+        // ARRANGE
+        Attribute[] attributes = {BOLD(), RED_TEXT(), CLEAR(), ITALIC(), GREEN_TEXT(), BRIGHT_RED_TEXT()};
+
+        // ACT
+        Style style = Style.of(attributes);
+
+        // ASSERT
+        assertThat(style, equalTo(Style.of(ITALIC(), BRIGHT_RED_TEXT())));
+        assertThat(Style.of(NONE(), CLEAR()), sameInstance(Style.DEFAULT));
+    }
+
+    @Test
+    public void Style_ConvertsBackToAttributes() {
+        // ARRANGE
+        Style style = Style.of(BACK_COLOR(10, 20, 30), UNDERLINE(), TEXT_COLOR(100), BOLD(), OVERLINED());
+
+        // ACT
+        String code = Ansi.renderCode(ColorMode.TRUECOLOR, style.toAttributes());
+
+        // ASSERT
+        assertThat(code, equalTo(Ansi.PREFIX + "1;4;53;38;5;100;48;2;10;20;30" + Ansi.POSTFIX));
+        assertThat(style.toFormat().getStyle(), equalTo(style));
+    }
+
+    @Test
+    public void Style_Merge() {
+        // ARRANGE
+        Style style = Style.of(BOLD(), RED_TEXT(), WHITE_BACK());
+
+        // ACT
+        Style merged = style.merge(Style.of(ITALIC(), GREEN_TEXT()));
+
+        // ASSERT
+        assertThat(merged, equalTo(Style.of(BOLD(), ITALIC(), GREEN_TEXT(), WHITE_BACK())));
+    }
+
+    @Test
+    public void Style_Diff_TurnsOffOnlyWhatChanges() {
+        // ARRANGE
+        Style style = Style.of(BOLD(), DIM(), UNDERLINE(), RED_TEXT(), WHITE_BACK());
+        Style next = Style.of(DIM(), UNDERLINE(), GREEN_TEXT());
+
+        // ACT
+        Attribute[] diff = style.diff(next);
+
+        // ASSERT
+        assertThat(Ansi.renderCode(ColorMode.TRUECOLOR, diff), equalTo(Ansi.PREFIX + "22;2;32;49" + Ansi.POSTFIX));
+        assertThat(style.diff(style), emptyArray());
+    }
+
+    @Test
+    public void Style_Diff_AppliedOnStyle_GivesNextStyle() {
+        // ARRANGE
+        Style style = Style.of(ITALIC(), FRAMED(), TEXT_COLOR(1, 2, 3), BACK_COLOR(200));
+        Style next = Style.of(ENCIRCLED(), STRIKETHROUGH(), BACK_COLOR(201));
+
+        // ACT
+        Attribute[] diff = style.diff(next);
+
+        // ASSERT
+        Attribute[] attributes = concat(style.toAttributes(), diff);
+        assertThat(Style.of(attributes), equalTo(next));
+    }
+
+    @Test
+    public void Style_CustomAttribute_IsRejected() {
+        // ARRANGE
+        Attribute custom = new Attribute() {
+            @Override
+            public String toString() {
+                return "custom";
+            }
+        };
+
+        // ACT, ASSERT
+        assertThrows(IllegalArgumentException.class, () -> Style.of(BOLD(), custom));
+    }
+
+    private static Attribute[] concat(Attribute[] first, Attribute[] second) {
+        Attribute[] all = new Attribute[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+}
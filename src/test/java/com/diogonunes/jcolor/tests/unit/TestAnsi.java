@@ -3,7 +3,11 @@ package com.diogonunes.jcolor.tests.unit;
 import com.diogonunes.jcolor.Ansi;
 import com.diogonunes.jcolor.AnsiFormat;
 import com.diogonunes.jcolor.Attribute;
+import com.diogonunes.jcolor.ColorMode;
 import com.diogonunes.jcolor.Command;
+import com.diogonunes.jcolor.ResetPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.regex.Matcher;
@@ -22,6 +26,19 @@ public class TestAnsi {
 
     public static final String NEWLINE = System.getProperty("line.separator");
 
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
     @Test
     public void Configuration_EscapeCodes() {
         // ARRANGE
@@ -171,6 +188,19 @@ public class TestAnsi {
         assertThat("Code ending in semicolon does not show color", code.charAt(suffixIndex - 1), is(not(';')));
     }
 
+    @Test
+    public void GenerateCode_MultipleAttributes_HandlesColorsMixedWithNone() {
+        // ARRANGE
+        Attribute[] attributes = new Attribute[]{NONE(), BOLD(), NONE(), TEXT_COLOR(255, 0, 7), BACK_COLOR(16), NONE()};
+
+        // ACT
+        String code = Ansi.generateCode(attributes);
+
+        // ASSERT
+        String expectedCode = PREFIX + "1" + SEPARATOR + "38;2;255;0;7" + SEPARATOR + "48;5;16" + POSTFIX;
+        assertThat(code, equalTo(expectedCode));
+    }
+
     @Test
     public void Colorize_TextWithoutLines() {
         // ARRANGE
@@ -268,6 +298,60 @@ public class TestAnsi {
         assertThat(formattedText, endsWith(Ansi.RESET));
     }
 
+    @Test
+    public void Colorize_TextWithMixedLineBreaks() {
+        // ARRANGE
+        String code = Ansi.generateCode(GREEN_BACK());
+        String fullText = "unix\nwindows\r\nmac\rend";
+
+        // ACT
+        String formattedText = Ansi.colorize(fullText, code);
+
+        // ASSERT
+        String expectedText = code + "unix" + RESET + "\n" + code + "windows" + RESET + "\r\n" + code
+                + "mac" + RESET + "\r" + code + "end" + RESET;
+        assertThat(formattedText, equalTo(expectedText));
+    }
+
+    @Test
+    public void Colorize_TextEndingWithLineBreak() {
+        // ARRANGE
+        String code = Ansi.generateCode(GREEN_BACK());
+        String fullText = "line\r\n";
+
+        // ACT
+        String formattedText = Ansi.colorize(fullText, code);
+
+        // ASSERT
+        assertThat(formattedText, equalTo(code + "line" + RESET + "\r\n" + code + RESET));
+    }
+
+    @Test
+    public void Colorize_ResetPolicy_WholeBlock() {
+        // ARRANGE
+        String code = Ansi.generateCode(BLUE_TEXT());
+        String fullText = "line1\nline2";
+
+        // ACT
+        String formattedText = Ansi.colorize(fullText, code, ResetPolicy.WHOLE_BLOCK);
+
+        // ASSERT
+        assertThat(formattedText, equalTo(code + fullText + RESET));
+    }
+
+    @Test
+    public void Colorize_ResetPolicy_None() {
+        // ARRANGE
+        String code = Ansi.generateCode(BLUE_TEXT());
+        String fullText = "line1\nline2";
+
+        // ACT
+        String formattedText = Ansi.colorize(fullText, code, ResetPolicy.NONE);
+
+        // ASSERT
+        assertThat(formattedText, equalTo(code + fullText));
+    }
+
     @Test
     public void Colorize_ConflictingAttributes_UsesTheLast() {
         // ARRANGE
@@ -283,4 +367,40 @@ public class TestAnsi {
         assertThat(formattedText, startsWith(expectedCode));
         assertThat("Message should clear its format", formattedText, endsWith(Ansi.RESET));
     }
+
+    @Test
+    public void VisibleWidth_SkipsCodes() {
+        // ARRANGE
+        String text = Ansi.colorize("Message", BOLD(), TEXT_COLOR(255, 160, 122)) + " ok";
+
+        // ACT
+        int width = Ansi.visibleWidth(text);
+
+        // ASSERT
+        assertThat(width, equalTo("Message ok".length()));
+    }
+
+    @Test
+    public void VisibleWidth_WideChars() {
+        // ARRANGE
+        String text = Ansi.colorize("日本語", RED_TEXT()) + "ｱ" + "\uD83D\uDE00"; // 😀 is a surrogate pair
+
+        // ACT
+        int width = Ansi.visibleWidth(text);
+
+        // ASSERT
+        assertThat(width, equalTo(3 * 2 + 1 + 2));
+    }
+
+    @Test
+    public void VisibleWidth_CombiningChars() {
+        // ARRANGE
+        String text = "e\u0301" + "\u2764\uFE0F" + "\t"; // e + accent, heart + emoji selector, tab
+
+        // ACT
+        int width = Ansi.visibleWidth(text);
+
+        // ASSERT
+        assertThat(width, equalTo(1 + 1));
+    }
 }
@@ -0,0 +1,110 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiCodeCache;
+import com.diogonunes.jcolor.Attribute;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.diogonunes.jcolor.Ansi.*;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that the codes generated for attributes are cached, when a cache is used.
+ */
+public class TestAnsiCodeCache {
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void stopCaching() {
+        Ansi.setCodeCache(null);
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Cache_CountsHitsAndMisses() {
+        // ARRANGE
+        AnsiCodeCache cache = new AnsiCodeCache(10);
+        Ansi.setCodeCache(cache);
+
+        // ACT
+        String code = generateCode(BOLD(), TEXT_COLOR(10, 20, 30));
+        String cachedCode = generateCode(BOLD(), TEXT_COLOR(10, 20, 30));
+        generateCode(BOLD(), TEXT_COLOR(10, 20, 31));
+
+        // ASSERT
+        assertThat(code, equalTo(PREFIX + "1;38;2;10;20;30" + POSTFIX));
+        assertThat(cachedCode, sameInstance(code));
+        assertThat(cache.getHits(), equalTo(1L));
+        assertThat(cache.getMisses(), equalTo(2L));
+        assertThat(cache.size(), equalTo(2));
+    }
+
+    @Test
+    public void Cache_DropsLeastRecentlyUsedCode() {
+        // ARRANGE
+        AnsiCodeCache cache = new AnsiCodeCache(2);
+        Ansi.setCodeCache(cache);
+        generateCode(RED_TEXT());
+        generateCode(GREEN_TEXT());
+
+        // ACT
+        generateCode(RED_TEXT());
+        generateCode(BLUE_TEXT());
+        generateCode(RED_TEXT());
+        generateCode(GREEN_TEXT());
+
+        // ASSERT
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.getHits(), equalTo(2L));
+        assertThat(cache.getMisses(), equalTo(4L));
+    }
+
+    @Test
+    public void Cache_IsNotChangedByCallerArray() {
+        // ARRANGE
+        AnsiCodeCache cache = new AnsiCodeCache(10);
+        Ansi.setCodeCache(cache);
+        Attribute[] attributes = {BOLD(), RED_TEXT()};
+        generateCode(attributes);
+
+        // ACT
+        attributes[1] = GREEN_TEXT();
+        String code = generateCode(attributes);
+
+        // ASSERT
+        assertThat(code, equalTo(PREFIX + "1;32" + POSTFIX));
+        assertThat(cache.getMisses(), equalTo(2L));
+    }
+
+    @Test
+    public void Cache_Clear() {
+        // ARRANGE
+        AnsiCodeCache cache = new AnsiCodeCache(10);
+        Ansi.setCodeCache(cache);
+        generateCode(RED_TEXT());
+        generateCode(RED_TEXT());
+
+        // ACT
+        cache.clear();
+
+        // ASSERT
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.getHits(), equalTo(0L));
+        assertThat(cache.getMisses(), equalTo(0L));
+        assertThrows(IllegalArgumentException.class, () -> new AnsiCodeCache(0));
+    }
+
+}
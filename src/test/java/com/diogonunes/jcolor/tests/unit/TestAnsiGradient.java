@@ -0,0 +1,120 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiGradient;
+import com.diogonunes.jcolor.AnsiStripper;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.diogonunes.jcolor.Ansi.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that gradients color each char, and only write the codes where the color changes.
+ */
+public class TestAnsiGradient {
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Gradient_Rgb() {
+        // ARRANGE
+        AnsiGradient gradient = AnsiGradient.of(0xFF0000, 0x0000FF);
+
+        // ACT
+        String text = gradient.apply("abc");
+
+        // ASSERT
+        String expectedText = PREFIX + "38;2;255;0;0" + POSTFIX + "a" + PREFIX + "38;2;128;0;128" + POSTFIX + "b"
+                + PREFIX + "38;2;0;0;255" + POSTFIX + "c" + RESET;
+        assertThat(text, equalTo(expectedText));
+    }
+
+    @Test
+    public void Gradient_Oklab() {
+        // ARRANGE
+        AnsiGradient gradient = AnsiGradient.of(AnsiGradient.Space.OKLAB, 0x000000, 0xFFFFFF).onBackground();
+
+        // ACT
+        String text = gradient.apply("abc");
+
+        // ASSERT
+        String expectedText = PREFIX + "48;2;0;0;0" + POSTFIX + "a" + PREFIX + "48;2;99;99;99" + POSTFIX + "b"
+                + PREFIX + "48;2;255;255;255" + POSTFIX + "c" + RESET;
+        assertThat(text, equalTo(expectedText));
+    }
+
+    @Test
+    public void Gradient_SameColor_WritesCodeOnce() {
+        // ARRANGE
+        AnsiGradient gradient = AnsiGradient.of(0x00FF00, 0x00FF00);
+
+        // ACT
+        String text = gradient.apply("abcdef");
+
+        // ASSERT
+        assertThat(text, equalTo(PREFIX + "38;2;0;255;0" + POSTFIX + "abcdef" + RESET));
+    }
+
+    @Test
+    public void Gradient_ManyLines_AreAligned() {
+        // ARRANGE
+        AnsiGradient gradient = AnsiGradient.of(0xFF0000, 0x0000FF);
+
+        // ACT
+        String text = gradient.apply("ab\nabc");
+
+        // ASSERT
+        String red = PREFIX + "38;2;255;0;0" + POSTFIX, purple = PREFIX + "38;2;128;0;128" + POSTFIX;
+        String expectedText = red + "a" + purple + "b" + RESET + "\n"
+                + red + "a" + purple + "b" + PREFIX + "38;2;0;0;255" + POSTFIX + "c" + RESET;
+        assertThat(text, equalTo(expectedText));
+    }
+
+    @Test
+    public void Gradient_Ansi16_MergesEqualColors() {
+        // ARRANGE
+        AnsiGradient gradient = AnsiGradient.rainbow();
+        String letters = "abcdefghijklmnopqrstuvwxyz";
+
+        // ACT
+        Ansi.setColorMode(ColorMode.ANSI16);
+        String text = gradient.apply(letters);
+
+        // ASSERT
+        assertThat(text, startsWith(PREFIX + "91" + POSTFIX + "ab"));
+        assertThat(AnsiStripper.strip(text), equalTo(letters));
+        assertThat(text.split("\u001B\\[").length - 1, lessThan(letters.length()));
+    }
+
+    @Test
+    public void Gradient_ColorModeOff() {
+        // ARRANGE
+        AnsiGradient gradient = AnsiGradient.rainbow();
+
+        // ACT
+        Ansi.setColorMode(ColorMode.OFF);
+        String text = gradient.apply("banner");
+
+        // ASSERT
+        assertThat(text, equalTo("banner"));
+        assertThrows(IllegalArgumentException.class, () -> AnsiGradient.of(0xFF0000));
+        assertThrows(IllegalArgumentException.class, () -> AnsiGradient.of(0xFF0000, 0x1000000));
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiSpanRenderer;
+import com.diogonunes.jcolor.AnsiStripper;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.diogonunes.jcolor.Ansi.*;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Assert that consecutive spans only write the codes that change between them.
+ */
+public class TestAnsiSpanRenderer {
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Render_OnlyChangedColor() throws IOException {
+        // ARRANGE
+        StringBuilder output = new StringBuilder();
+        AnsiSpanRenderer renderer = new AnsiSpanRenderer(output);
+
+        // ACT
+        renderer.append("a", new AnsiFormat(BOLD(), RED_TEXT()))
+                .append("b", new AnsiFormat(BOLD(), GREEN_TEXT()))
+                .append("c", new AnsiFormat(BOLD(), GREEN_TEXT()));
+        renderer.end();
+
+        // ASSERT
+        String expectedText = PREFIX + "1;31" + POSTFIX + "a" + PREFIX + "32" + POSTFIX + "bc" + RESET;
+        assertThat(output.toString(), equalTo(expectedText));
+    }
+
+    @Test
+    public void Render_TurnsOffEndedEffects() throws IOException {
+        // ARRANGE
+        StringBuilder output = new StringBuilder();
+        AnsiSpanRenderer renderer = new AnsiSpanRenderer(output);
+
+        // ACT
+        renderer.append("a", new AnsiFormat(BOLD(), UNDERLINE(), TEXT_COLOR(10, 20, 30), WHITE_BACK()))
+                .append("b", new AnsiFormat(UNDERLINE(), TEXT_COLOR(10, 20, 30), WHITE_BACK()));
+        renderer.end();
+
+        // ASSERT
+        String expectedText = PREFIX + "1;4;38;2;10;20;30;47" + POSTFIX + "a" + PREFIX + "22" + POSTFIX + "b" + RESET;
+        assertThat(output.toString(), equalTo(expectedText));
+    }
+
+    @Test
+    public void Render_ResetsWhenShorter() throws IOException {
+        // ARRANGE
+        StringBuilder output = new StringBuilder();
+        AnsiSpanRenderer renderer = new AnsiSpanRenderer(output);
+
+        // ACT
+        renderer.append("a", new AnsiFormat(BOLD(), ITALIC(), RED_TEXT(), WHITE_BACK()))
+                .append("b")
+                .append("c", new AnsiFormat(ITALIC()));
+        renderer.end();
+
+        // ASSERT
+        String expectedText = PREFIX + "1;3;31;47" + POSTFIX + "a" + RESET + "b" + PREFIX + "3" + POSTFIX + "c" + RESET;
+        assertThat(output.toString(), equalTo(expectedText));
+    }
+
+    @Test
+    public void Render_ResetsBeforeLineBreaks() throws IOException {
+        // ARRANGE
+        StringBuilder output = new StringBuilder();
+        AnsiSpanRenderer renderer = new AnsiSpanRenderer(output);
+        AnsiFormat format = new AnsiFormat(RED_BACK());
+
+        // ACT
+        renderer.append("a\r\nb", format).append("c\n", format);
+        renderer.end();
+
+        // ASSERT
+        String expectedText = PREFIX + "41" + POSTFIX + "a" + RESET + "\r\n" + PREFIX + "41" + POSTFIX + "bc" + RESET + "\n";
+        assertThat(output.toString(), equalTo(expectedText));
+    }
+
+    @Test
+    public void Render_IsSmallerThanColorizeEachSpan() throws IOException {
+        // ARRANGE
+        StringBuilder output = new StringBuilder();
+        StringBuilder colorized = new StringBuilder();
+        AnsiSpanRenderer renderer = new AnsiSpanRenderer(output);
+        AnsiFormat[] formats = {new AnsiFormat(BOLD(), BLUE_BACK(), WHITE_TEXT()), new AnsiFormat(BLUE_BACK(), WHITE_TEXT())};
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            renderer.append("cell " + i, formats[i % 2]);
+            colorized.append(colorize("cell " + i, formats[i % 2]));
+        }
+        renderer.end();
+
+        // ASSERT
+        assertThat(AnsiStripper.strip(output.toString()), equalTo(AnsiStripper.strip(colorized.toString())));
+        assertThat(output.length(), lessThan(colorized.length()));
+    }
+
+    @Test
+    public void Render_ColorModeOff() throws IOException {
+        // ARRANGE
+        Ansi.setColorMode(ColorMode.OFF);
+        StringBuilder output = new StringBuilder();
+        AnsiSpanRenderer renderer = new AnsiSpanRenderer(output);
+
+        // ACT
+        renderer.append("a", new AnsiFormat(BOLD())).append("b\n", new AnsiFormat(RED_TEXT()));
+        renderer.end();
+
+        // ASSERT
+        assertThat(output.toString(), equalTo("ab\n"));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiStringBuilder;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static com.diogonunes.jcolor.Ansi.*;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that spans appended to the builder are formatted once, when it is rendered.
+ */
+public class TestAnsiStringBuilder {
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Build_SpansWithFormats() {
+        // ARRANGE
+        AnsiStringBuilder builder = new AnsiStringBuilder();
+
+        // ACT
+        builder.append("[").append("ERROR", new AnsiFormat(BOLD(), RED_TEXT())).append("] ").append("message");
+
+        // ASSERT
+        String expectedText = "[" + PREFIX + "1;31" + POSTFIX + "ERROR" + RESET + "] message";
+        assertThat(builder.toString(), equalTo(expectedText));
+        assertThat(builder.length(), equalTo("[ERROR] message".length()));
+    }
+
+    @Test
+    public void Build_MergesSpansWithSameFormat() {
+        // ARRANGE
+        AnsiStringBuilder builder = new AnsiStringBuilder();
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+
+        // ACT
+        builder.append("a", format).append("", new AnsiFormat(RED_TEXT())).append("b", new AnsiFormat(GREEN_TEXT()));
+
+        // ASSERT
+        assertThat(builder.toString(), equalTo(format.format("ab")));
+    }
+
+    @Test
+    public void Build_NestedFormats() {
+        // ARRANGE
+        AnsiStringBuilder builder = new AnsiStringBuilder();
+
+        // ACT
+        builder.push(new AnsiFormat(BLUE_BACK()))
+                .append("a")
+                .append("b", new AnsiFormat(BOLD()))
+                .pop()
+                .append("c");
+
+        // ASSERT
+        String expectedText = PREFIX + "44" + POSTFIX + "a" + PREFIX + "1" + POSTFIX + "b" + RESET + "c";
+        assertThat(builder.toString(), equalTo(expectedText));
+        assertThrows(IllegalStateException.class, builder::pop);
+    }
+
+    @Test
+    public void Build_ResetReusesBuilder() throws IOException {
+        // ARRANGE
+        AnsiStringBuilder builder = new AnsiStringBuilder();
+        builder.push(new AnsiFormat(BOLD())).append("old line", new AnsiFormat(RED_TEXT()));
+        StringWriter output = new StringWriter();
+
+        // ACT
+        builder.reset().append("new line", new AnsiFormat(CYAN_TEXT()));
+        builder.renderTo(output);
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(PREFIX + "36" + POSTFIX + "new line" + RESET));
+    }
+
+    @Test
+    public void Build_ColorModeOff() {
+        // ARRANGE
+        AnsiStringBuilder builder = new AnsiStringBuilder();
+        builder.append("a", new AnsiFormat(BOLD())).append("b");
+
+        // ACT
+        Ansi.setColorMode(ColorMode.OFF);
+        String text = builder.toString();
+
+        // ASSERT
+        assertThat(text, equalTo("ab"));
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static com.diogonunes.jcolor.Ansi.colorize;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests for AnsiStripper class.
+ */
+public class TestAnsiStripper {
+
+    private static final char ESC = 27;
+
+    @Test
+    public void Strip_TextWithoutCodes_ReturnsSameInstance() {
+        // ARRANGE
+        String text = "No codes here\n";
+
+        // ACT
+        String strippedText = AnsiStripper.strip(text);
+
+        // ASSERT
+        assertThat(strippedText, sameInstance(text));
+    }
+
+    @Test
+    public void Strip_ColorizedText_ReturnsOriginalText() {
+        // ARRANGE
+        String text = "Line 1\nLine 2\r\n";
+        String formattedText = colorize(text, BOLD(), TEXT_COLOR(255, 160, 122), BACK_COLOR(225));
+
+        // ACT
+        String strippedText = AnsiStripper.strip(formattedText);
+
+        // ASSERT
+        assertThat(strippedText, equalTo(text));
+    }
+
+    @Test
+    public void Strip_OtherSequences() {
+        // ARRANGE
+        String hyperlink = ESC + "]8;;https://example.com" + ESC + "\\link" + ESC + "]8;;" + (char) 7;
+        String cursor = ESC + "[2J" + ESC + "[?25l" + ESC + "7" + ESC + "(B";
+        String text = "[" + hyperlink + "]" + cursor + "end";
+
+        // ACT
+        String strippedText = AnsiStripper.strip(text);
+
+        // ASSERT
+        assertThat(strippedText, equalTo("[link]end"));
+    }
+
+    @Test
+    public void Stripping_Writer_SplitAnywhere() throws IOException {
+        // ARRANGE
+        String text = new AnsiFormat(RED_TEXT(), GREEN_BACK()).format("one\ntwo");
+
+        for (int split = 0; split <= text.length(); split++) {
+            StringWriter output = new StringWriter();
+
+            // ACT
+            try (Writer writer = AnsiStripper.stripping(output)) {
+                writer.write(text.substring(0, split));
+                writer.write(text.substring(split).toCharArray());
+            }
+
+            // ASSERT
+            assertThat("Split at " + split, output.toString(), equalTo("one\ntwo"));
+        }
+    }
+
+    @Test
+    public void Stripping_Reader() throws IOException {
+        // ARRANGE
+        String text = colorize("Colored", BLUE_TEXT()) + " plain " + colorize("text", UNDERLINE());
+        StringWriter output = new StringWriter();
+
+        // ACT
+        try (Reader reader = AnsiStripper.stripping(new StringReader(text))) {
+            char[] buffer = new char[3];
+            int read;
+            while ((read = reader.read(buffer)) >= 0)
+                output.write(buffer, 0, read);
+        }
+
+        // ASSERT
+        assertThat(output.toString(), equalTo("Colored plain text"));
+    }
+
+    @Test
+    public void Stripping_InputStream() throws IOException {
+        // ARRANGE
+        String text = colorize("Olá", MAGENTA_TEXT()) + " ✓";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // ACT
+        try (InputStream input = AnsiStripper.stripping(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))) {
+            byte[] buffer = new byte[4];
+            int read;
+            while ((read = input.read(buffer)) >= 0)
+                output.write(buffer, 0, read);
+        }
+
+        // ASSERT
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8), equalTo("Olá ✓"));
+    }
+}
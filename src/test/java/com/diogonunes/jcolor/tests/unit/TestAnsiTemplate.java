@@ -0,0 +1,118 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiTemplate;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static com.diogonunes.jcolor.Ansi.*;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that templates with inline styles are formatted like the matching calls to colorize.
+ */
+public class TestAnsiTemplate {
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Template_StylesAndSlots() {
+        // ARRANGE
+        AnsiTemplate template = AnsiTemplate.compile("@{bold,red [ERROR]} @{cyan %s} %s");
+
+        // ACT
+        String text = template.render("db", 42);
+
+        // ASSERT
+        String expectedText = colorize("[ERROR]", BOLD(), RED_TEXT()) + " " + colorize("db", CYAN_TEXT()) + " 42";
+        assertThat(text, equalTo(expectedText));
+        assertThat(template.getSlotCount(), equalTo(2));
+    }
+
+    @Test
+    public void Template_ColorsAndCaseInsensitiveNames() {
+        // ARRANGE
+        AnsiTemplate template = AnsiTemplate.compile("@{Text_Color(255, 0, 0),BACK_COLOR(17),Bright_Green_Back hot %s}");
+
+        // ACT
+        String text = template.render("stuff");
+
+        // ASSERT
+        AnsiFormat format = new AnsiFormat(TEXT_COLOR(255, 0, 0), BACK_COLOR(17), BRIGHT_GREEN_BACK());
+        assertThat(text, equalTo(format.format("hot stuff")));
+    }
+
+    @Test
+    public void Template_Escapes() {
+        // ARRANGE
+        AnsiTemplate template = AnsiTemplate.compile("100%% @@home {x} @{bold a@}b}");
+
+        // ACT
+        String text = template.render();
+
+        // ASSERT
+        assertThat(text, equalTo("100% @home {x} " + colorize("a}b", BOLD())));
+    }
+
+    @Test
+    public void Template_ArgumentWithManyLines() throws IOException {
+        // ARRANGE
+        AnsiTemplate template = AnsiTemplate.compile("@{yellow_back %s}");
+        StringWriter output = new StringWriter();
+
+        // ACT
+        template.renderTo(output, "line 1\nline 2");
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(colorize("line 1\nline 2", YELLOW_BACK())));
+    }
+
+    @Test
+    public void Template_ColorModeOff() {
+        // ARRANGE
+        AnsiTemplate template = AnsiTemplate.compile("@{bold,red [ERROR]} %s");
+
+        // ACT
+        Ansi.setColorMode(ColorMode.OFF);
+        String text = template.render("message");
+
+        // ASSERT
+        assertThat(text, equalTo("[ERROR] message"));
+    }
+
+    @Test
+    public void Template_Malformed() {
+        // ARRANGE
+
+        // ACT
+
+        // ASSERT
+        assertThrows(IllegalArgumentException.class, () -> AnsiTemplate.compile("@{bold text"));
+        assertThrows(IllegalArgumentException.class, () -> AnsiTemplate.compile("@{blinking text}"));
+        assertThrows(IllegalArgumentException.class, () -> AnsiTemplate.compile("@{bold @{red text}}"));
+        assertThrows(IllegalArgumentException.class, () -> AnsiTemplate.compile("%d"));
+        assertThrows(IllegalArgumentException.class, () -> AnsiTemplate.compile("@{text_color(256) text}"));
+        assertThrows(IllegalArgumentException.class, () -> AnsiTemplate.compile("%s %s").render("one"));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for AnsiWriter class.
+ */
+public class TestAnsiWriter {
+
+    @Test
+    public void Write_WholeText_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(WHITE_TEXT(), BLUE_BACK());
+        StringWriter output = new StringWriter();
+        String text = "line 1\nline 2\r\nline 3\rline 4";
+
+        // ACT
+        try (Writer writer = new AnsiWriter(output, format)) {
+            writer.write(text);
+        }
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(format.format(text)));
+    }
+
+    @Test
+    public void Write_TextSplitAnywhere_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(RED_BACK());
+        String text = "a\r\nb\r\r\n\nc\r";
+
+        for (int split = 0; split <= text.length(); split++) {
+            StringWriter output = new StringWriter();
+
+            // ACT
+            try (Writer writer = new AnsiWriter(output, format)) {
+                writer.write(text.substring(0, split));
+                writer.write(text.substring(split).toCharArray());
+            }
+
+            // ASSERT
+            assertThat("Split at " + split, output.toString(), equalTo(format.format(text)));
+        }
+    }
+
+    @Test
+    public void Write_OneCharAtATime_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+        StringWriter output = new StringWriter();
+        String text = "\r\nfirst\rsecond\n\r";
+
+        // ACT
+        try (Writer writer = new AnsiWriter(output, format)) {
+            for (char c : text.toCharArray())
+                writer.write(c);
+        }
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(format.format(text)));
+    }
+
+    @Test
+    public void Write_NothingWritten_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+        StringWriter output = new StringWriter();
+
+        // ACT
+        new AnsiWriter(output, format).close();
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(format.format("")));
+    }
+
+    @Test
+    public void Write_AfterClose_Fails() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+        Writer writer = new AnsiWriter(new StringWriter(), format);
+
+        // ACT
+        writer.close();
+
+        // ASSERT
+        assertThrows(IOException.class, () -> writer.write("text"));
+    }
+}
@@ -0,0 +1,251 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.AnsiStripper;
+import com.diogonunes.jcolor.AsyncAnsiConsole;
+import com.diogonunes.jcolor.AsyncAnsiConsole.OverflowPolicy;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Assert that messages added by many threads are all printed, and that a full queue follows its policy.
+ */
+public class TestAsyncAnsiConsole {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Console_ManyThreads_PrintsEveryMessageInOrder() throws InterruptedException {
+        // ARRANGE
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncAnsiConsole console = new AsyncAnsiConsole(output, 64, OverflowPolicy.BLOCK);
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+        int threadCount = 8, messageCount = 1000;
+
+        // ACT
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < messageCount; i++)
+                    console.println(thread + ":" + i, format);
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+        console.close();
+
+        // ASSERT
+        String[] lines = output.toString().split(LINE_SEPARATOR);
+        assertThat(lines.length, equalTo(threadCount * messageCount));
+        int[] nextMessage = new int[threadCount];
+        for (String line : lines) {
+            String message = AnsiStripper.strip(line);
+            assertThat(line, equalTo(format.format(message)));
+            int thread = Integer.parseInt(message.split(":")[0]);
+            assertThat(Integer.parseInt(message.split(":")[1]), equalTo(nextMessage[thread]++));
+        }
+        assertThat(console.getDroppedCount(), equalTo(0L));
+        assertThat(console.getQueueDepth(), equalTo(0L));
+    }
+
+    @Test
+    public void Console_FullQueue_DropsMessages() throws InterruptedException {
+        // ARRANGE
+        BlockingOutputStream output = new BlockingOutputStream();
+        AsyncAnsiConsole console = new AsyncAnsiConsole(output, 4, OverflowPolicy.DROP);
+        console.print("first");
+        output._isWriting.await(); // the writer is stuck, so the queue fills up
+
+        // ACT
+        for (int i = 0; i < 6; i++)
+            console.print(String.valueOf(i));
+        long queueDepth = console.getQueueDepth();
+        output._canWrite.countDown();
+        console.close();
+
+        // ASSERT
+        assertThat(queueDepth, equalTo(4L));
+        assertThat(console.getDroppedCount(), equalTo(2L));
+        assertThat(output.toString(), equalTo("first0123"));
+    }
+
+    @Test
+    public void Console_FullQueue_CoalescesDroppedMessages() throws InterruptedException {
+        // ARRANGE
+        BlockingOutputStream output = new BlockingOutputStream();
+        AsyncAnsiConsole console = new AsyncAnsiConsole(output, 2, OverflowPolicy.COALESCE);
+        console.print("first");
+        output._isWriting.await();
+
+        // ACT
+        for (int i = 0; i < 5; i++)
+            console.print(String.valueOf(i));
+        output._canWrite.countDown();
+        console.close();
+
+        // ASSERT
+        assertThat(console.getDroppedCount(), equalTo(3L));
+        assertThat(output.toString(), equalTo("first01[3 messages dropped]" + LINE_SEPARATOR));
+    }
+
+    @Test
+    public void Console_Closed_DropsMessages() {
+        // ARRANGE
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AsyncAnsiConsole console = new AsyncAnsiConsole(output, 16, OverflowPolicy.BLOCK);
+        console.print("text", new AnsiFormat(BOLD()));
+        console.flush();
+        String flushedText = new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+        // ACT
+        console.close();
+        boolean isAdded = console.print("late");
+
+        // ASSERT
+        assertThat(flushedText, equalTo(Ansi.colorize("text", BOLD())));
+        assertThat(isAdded, equalTo(false));
+        assertThat(console.getDroppedCount(), equalTo(1L));
+        assertThat(console.checkError(), equalTo(false));
+    }
+
+    @Test
+    public void Console_ReusedBuilder_PrintsEachText() throws InterruptedException {
+        // ARRANGE
+        BlockingOutputStream output = new BlockingOutputStream();
+        AsyncAnsiConsole console = new AsyncAnsiConsole(output, 16, OverflowPolicy.BLOCK);
+        console.print("first");
+        output._isWriting.await(); // the writer is stuck, so the texts wait in the queue
+        StringBuilder text = new StringBuilder();
+
+        // ACT
+        for (int i = 0; i < 3; i++) {
+            text.setLength(0);
+            console.print(text.append("line ").append(i).append(';'));
+        }
+        text.setLength(0);
+        output._canWrite.countDown();
+        console.close();
+
+        // ASSERT
+        assertThat(output.toString(), equalTo("firstline 0;line 1;line 2;"));
+    }
+
+    @Test
+    public void Console_ClosedWhileAdding_PrintsEveryAddedMessage() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            // ARRANGE
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            AsyncAnsiConsole console = new AsyncAnsiConsole(output, 64, OverflowPolicy.BLOCK);
+            AtomicLong addedCount = new AtomicLong();
+            int threadCount = 4, messageCount = 500;
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++)
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < messageCount; i++)
+                        if (console.println("message", null))
+                            addedCount.incrementAndGet();
+                }));
+
+            // ACT
+            for (Thread thread : threads)
+                thread.start();
+            console.close();
+            for (Thread thread : threads)
+                thread.join();
+
+            // ASSERT
+            String text = output.toString();
+            long printedCount = text.isEmpty() ? 0 : text.split(LINE_SEPARATOR).length;
+            assertThat(printedCount, equalTo(addedCount.get()));
+            assertThat(addedCount.get() + console.getDroppedCount(), equalTo((long) threadCount * messageCount));
+        }
+    }
+
+    @Test
+    public void Console_NotClosed_PrintsEveryMessageAtExit() throws IOException, InterruptedException {
+        // ARRANGE
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-D" + ColorMode.PROPERTY + "=OFF",
+                "-cp", System.getProperty("java.class.path"), ExitWithoutClose.class.getName());
+
+        // ACT
+        Process process = builder.redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream input = process.getInputStream()) {
+            for (int count; (count = input.read(buffer)) > 0; )
+                output.write(buffer, 0, count);
+        }
+        process.waitFor();
+
+        // ASSERT
+        String[] lines = output.toString("UTF-8").split(LINE_SEPARATOR);
+        assertThat(lines.length, equalTo(ExitWithoutClose.MESSAGE_COUNT));
+        assertThat(lines[lines.length - 1], equalTo("message " + (ExitWithoutClose.MESSAGE_COUNT - 1)));
+    }
+
+    /**
+     * Adds messages to a console, and exits without closing it.
+     */
+    public static final class ExitWithoutClose {
+        static final int MESSAGE_COUNT = 10_000;
+
+        public static void main(String[] args) {
+            AsyncAnsiConsole console = new AsyncAnsiConsole();
+            for (int i = 0; i < MESSAGE_COUNT; i++)
+                console.println("message " + i, null);
+        }
+    }
+
+    /**
+     * Blocks the first flush until it is allowed to write.
+     */
+    private static class BlockingOutputStream extends ByteArrayOutputStream {
+        private final CountDownLatch _isWriting = new CountDownLatch(1);
+        private final CountDownLatch _canWrite = new CountDownLatch(1);
+
+        @Override
+        public void flush() {
+            _isWriting.countDown();
+            try {
+                _canWrite.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
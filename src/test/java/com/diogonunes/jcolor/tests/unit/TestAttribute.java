@@ -1,17 +1,37 @@
 package com.diogonunes.jcolor.tests.unit;
 
+import com.diogonunes.jcolor.Ansi;
 import com.diogonunes.jcolor.Attribute;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static com.diogonunes.jcolor.Ansi.SEPARATOR;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Assert that each Attribute outputs the correct Ansi code.
  */
 public class TestAttribute {
 
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
     // Effects
 
     @Test
@@ -708,4 +728,91 @@ public class TestAttribute {
         assertThat(code, equalTo(expectedCode));
     }
 
+    // Shared instances
+
+    @Test
+    public void Attribute_Factory_ReturnsSharedInstance_Simple() {
+        // ARRANGE
+
+        // ACT
+        Attribute first = Attribute.RED_TEXT();
+        Attribute second = Attribute.RED_TEXT();
+
+        // ASSERT
+        assertThat(first, sameInstance(second));
+    }
+
+    @Test
+    public void Attribute_Factory_ReturnsSharedInstance_Alias() {
+        // ARRANGE
+
+        // ACT
+        Attribute bold = Attribute.BOLD();
+        Attribute saturated = Attribute.SATURATED();
+
+        // ASSERT
+        assertThat(bold, sameInstance(saturated));
+    }
+
+    @Test
+    public void Attribute_Factory_ReturnsSharedInstance_8bitColor() {
+        // ARRANGE
+        int colorNumber = 255;
+
+        // ACT
+        Attribute text = Attribute.TEXT_COLOR(colorNumber);
+        Attribute back = Attribute.BACK_COLOR(colorNumber);
+
+        // ASSERT
+        assertThat(text, sameInstance(Attribute.TEXT_COLOR(colorNumber)));
+        assertThat(back, sameInstance(Attribute.BACK_COLOR(colorNumber)));
+        assertThat(text.toString(), equalTo("38;5;" + colorNumber));
+        assertThat(back.toString(), equalTo("48;5;" + colorNumber));
+    }
+
+    @Test
+    public void Attribute_Factory_RejectsInvalid8bitColor() {
+        // ARRANGE
+        int colorNumber = 256;
+
+        // ACT
+
+        // ASSERT
+        assertThrows(IllegalArgumentException.class, () -> Attribute.TEXT_COLOR(colorNumber));
+        assertThrows(IllegalArgumentException.class, () -> Attribute.BACK_COLOR(-1));
+    }
+
+    // Equality
+
+    @Test
+    public void Attribute_Equals_SameCode() {
+        // ARRANGE
+        Attribute bold = Attribute.BOLD();
+
+        // ACT
+        Attribute saturated = Attribute.SATURATED();
+
+        // ASSERT
+        assertThat(bold, equalTo(saturated));
+        assertThat(bold.hashCode(), equalTo(saturated.hashCode()));
+        assertThat(bold, not(equalTo(Attribute.DIM())));
+    }
+
+    @Test
+    public void Attribute_Equals_SameColor() {
+        // ARRANGE
+        Attribute text = Attribute.TEXT_COLOR(10, 20, 30);
+
+        // ACT
+        Attribute sameText = Attribute.TEXT_COLOR(10, 20, 30);
+
+        // ASSERT
+        assertThat(text, not(sameInstance(sameText)));
+        assertThat(text, equalTo(sameText));
+        assertThat(text.hashCode(), equalTo(sameText.hashCode()));
+        assertThat(text, not(equalTo(Attribute.BACK_COLOR(10, 20, 30))));
+        assertThat(text, not(equalTo(Attribute.TEXT_COLOR(10, 20, 31))));
+        assertThat(Attribute.TEXT_COLOR(1), not(equalTo(Attribute.RED_TEXT())));
+    }
+
 }
@@ -0,0 +1,242 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.ColorMode;
+import com.diogonunes.jcolor.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.diogonunes.jcolor.Ansi.*;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests for ColorMode class, and how the other classes honor it.
+ */
+public class TestColorMode {
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void SaveColorMode() {
+        _previousMode = Ansi.getColorMode();
+    }
+
+    @AfterEach
+    public void RestoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Detect_NoColor() {
+        // ARRANGE
+        Map<String, String> environment = new HashMap<>();
+        environment.put("NO_COLOR", "1");
+        environment.put("FORCE_COLOR", "3");
+
+        // ACT
+        ColorMode mode = ColorMode.detect(environment, true);
+
+        // ASSERT
+        assertThat(mode, equalTo(ColorMode.OFF));
+    }
+
+    @Test
+    public void Detect_ForceColor() {
+        // ARRANGE
+        Map<String, String> environment = new HashMap<>();
+        environment.put("FORCE_COLOR", "2");
+
+        // ACT
+        ColorMode mode = ColorMode.detect(environment, true);
+
+        // ASSERT
+        assertThat(mode, equalTo(ColorMode.ANSI256));
+    }
+
+    @Test
+    public void Detect_ForceColor_WithoutConsole() {
+        // ARRANGE
+        Map<String, String> environment = new HashMap<>();
+        environment.put("FORCE_COLOR", "3");
+
+        // ACT
+        ColorMode mode = ColorMode.detect(environment, false);
+
+        // ASSERT
+        assertThat(mode, equalTo(ColorMode.TRUECOLOR));
+    }
+
+    @Test
+    public void Detect_WithoutConsoleNorTerminal() {
+        // ARRANGE
+        Map<String, String> environment = new HashMap<>();
+
+        // ACT
+        ColorMode mode = ColorMode.detect(environment, false);
+
+        // ASSERT
+        assertThat(mode, equalTo(ColorMode.OFF));
+    }
+
+    @Test
+    public void Detect_UnknownTerminal() {
+        // ARRANGE
+        Map<String, String> environment = new HashMap<>();
+
+        // ACT
+        ColorMode mode = ColorMode.detect(environment, true);
+
+        // ASSERT
+        assertThat(mode, equalTo(ColorMode.TRUECOLOR));
+    }
+
+    @Test
+    public void Detect_Term() {
+        // ARRANGE
+        Map<String, String> dumb = new HashMap<>(), basic = new HashMap<>(), xterm = new HashMap<>();
+        dumb.put("TERM", "dumb");
+        basic.put("TERM", "xterm");
+        xterm.put("TERM", "xterm-256color");
+
+        // ACT
+
+        // ASSERT
+        assertThat(ColorMode.detect(dumb, true), equalTo(ColorMode.OFF));
+        assertThat(ColorMode.detect(basic, true), equalTo(ColorMode.ANSI16));
+        assertThat(ColorMode.detect(xterm, true), equalTo(ColorMode.ANSI256));
+    }
+
+    @Test
+    public void Detect_ColorTerm() {
+        // ARRANGE
+        Map<String, String> environment = new HashMap<>();
+        environment.put("TERM", "xterm-256color");
+        environment.put("COLORTERM", "truecolor");
+
+        // ACT
+        ColorMode mode = ColorMode.detect(environment, true);
+
+        // ASSERT
+        assertThat(mode, equalTo(ColorMode.TRUECOLOR));
+    }
+
+    @Test
+    public void Off_ReturnsSameInstance() {
+        // ARRANGE
+        String text = "Plain\ntext";
+        AnsiFormat format = new AnsiFormat(RED_TEXT(), BOLD());
+
+        // ACT
+        Ansi.setColorMode(ColorMode.OFF);
+
+        // ASSERT
+        assertThat(Ansi.colorize(text, RED_TEXT(), BOLD()), sameInstance(text));
+        assertThat(Ansi.colorize(text, format), sameInstance(text));
+        assertThat(format.format(text), sameInstance(text));
+    }
+
+    @Test
+    public void Off_GeneratesNoCode() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(RED_TEXT(), BOLD());
+
+        // ACT
+        Ansi.setColorMode(ColorMode.OFF);
+
+        // ASSERT
+        assertThat(Ansi.generateCode(RED_TEXT(), BOLD()), equalTo(""));
+        assertThat(Ansi.generateCode(format), equalTo(""));
+        assertThat(Ansi.colorize(Command.CLEAR_SCREEN()), equalTo(""));
+    }
+
+    @Test
+    public void Off_AppendsPlainText() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_BACK());
+        StringBuilder output = new StringBuilder();
+
+        // ACT
+        Ansi.setColorMode(ColorMode.OFF);
+        format.formatTo(output, "[text]", 1, 5);
+
+        // ASSERT
+        assertThat(output.toString(), equalTo("text"));
+    }
+
+    @Test
+    public void Ansi256_MapsTrueColorToNearest8bitColor() {
+        // ARRANGE
+
+        // ACT
+        Ansi.setColorMode(ColorMode.ANSI256);
+
+        // ASSERT
+        assertThat(Ansi.generateCode(TEXT_COLOR(255, 0, 0)), equalTo(Ansi.generateCode(TEXT_COLOR(196))));
+        assertThat(Ansi.generateCode(BACK_COLOR(100, 100, 100)), equalTo(Ansi.generateCode(BACK_COLOR(241))));
+        assertThat(Ansi.generateCode(BACK_COLOR(90, 135, 170)), equalTo(Ansi.generateCode(BACK_COLOR(67))));
+        assertThat(Ansi.generateCode(BACK_COLOR(89, 89, 89)), equalTo(Ansi.generateCode(BACK_COLOR(240))));
+        assertThat(Ansi.generateCode(TEXT_COLOR(0, 48, 12)), equalTo(Ansi.generateCode(TEXT_COLOR(235))));
+        assertThat(Ansi.generateCode(TEXT_COLOR(225)), equalTo(PREFIX + "38;5;225" + POSTFIX));
+    }
+
+    @Test
+    public void Ansi256_MapsPaletteColorsToThemselves() {
+        // ARRANGE
+        int[] cube = {0, 95, 135, 175, 215, 255};
+
+        // ACT
+        Ansi.setColorMode(ColorMode.ANSI256);
+
+        // ASSERT
+        for (int i = 16; i < 256; i++) {
+            int r, g, b;
+            if (i < 232) {
+                r = cube[(i - 16) / 36];
+                g = cube[((i - 16) / 6) % 6];
+                b = cube[(i - 16) % 6];
+            } else
+                r = g = b = 8 + 10 * (i - 232);
+            assertThat("color " + i, Ansi.generateCode(TEXT_COLOR(r, g, b)), equalTo(Ansi.generateCode(TEXT_COLOR(i))));
+        }
+    }
+
+    @Test
+    public void Ansi16_MapsColorsToNearestBasicColor() {
+        // ARRANGE
+
+        // ACT
+        Ansi.setColorMode(ColorMode.ANSI16);
+
+        // ASSERT
+        assertThat(Ansi.generateCode(TEXT_COLOR(255, 0, 0)), equalTo(Ansi.generateCode(BRIGHT_RED_TEXT())));
+        assertThat(Ansi.generateCode(BACK_COLOR(0, 0, 230)), equalTo(Ansi.generateCode(BLUE_BACK())));
+        assertThat(Ansi.generateCode(TEXT_COLOR(2)), equalTo(Ansi.generateCode(GREEN_TEXT())));
+        assertThat(Ansi.generateCode(BACK_COLOR(231)), equalTo(Ansi.generateCode(BRIGHT_WHITE_BACK())));
+        assertThat(Ansi.generateCode(BOLD(), RED_TEXT()), equalTo(PREFIX + "1;31" + POSTFIX));
+    }
+
+    @Test
+    public void AnsiFormat_FollowsColorMode() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(TEXT_COLOR(255, 0, 0));
+        String text = "text";
+
+        // ACT
+        Ansi.setColorMode(ColorMode.ANSI16);
+        String basicText = format.format(text);
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+        String trueColorText = format.format(text);
+
+        // ASSERT
+        assertThat(basicText, equalTo(Ansi.colorize(text, BRIGHT_RED_TEXT())));
+        assertThat(trueColorText, equalTo(PREFIX + "38;2;255;0;0" + POSTFIX + text + RESET));
+    }
+}
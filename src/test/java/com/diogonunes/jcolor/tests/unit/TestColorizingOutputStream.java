@@ -0,0 +1,100 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.ColorizingOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for ColorizingOutputStream class.
+ */
+public class TestColorizingOutputStream {
+
+    @Test
+    public void Write_Text_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(RED_TEXT(), BOLD());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ColorizingOutputStream output = new ColorizingOutputStream(bytes);
+        String text = "Olá\nmundo\r\n✓\rend";
+
+        // ACT
+        output.write(text, format);
+        output.flush();
+
+        // ASSERT
+        assertThat(bytes.toString("UTF-8"), equalTo(format.format(text)));
+    }
+
+    @Test
+    public void Write_TextLargerThanBuffer_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(BACK_COLOR(20, 40, 60));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ColorizingOutputStream output = new ColorizingOutputStream(bytes);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            text.append("línea ").append(i).append(i % 10 == 0 ? "\n" : "");
+
+        // ACT
+        output.write(text, format);
+        output.flush();
+
+        // ASSERT
+        assertThat(bytes.toString("UTF-8"), equalTo(format.format(text.toString())));
+    }
+
+    @Test
+    public void Write_EncodedPayload_SameAsFormat() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(CYAN_BACK());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ColorizingOutputStream output = new ColorizingOutputStream(bytes);
+        String text = "line 1\r\nline 2\n";
+        byte[] payload = ("[" + text + "]").getBytes(StandardCharsets.UTF_8);
+
+        // ACT
+        output.write(payload, 1, payload.length - 2, format);
+        output.flush();
+
+        // ASSERT
+        assertThat(bytes.toString("UTF-8"), equalTo(format.format(text)));
+    }
+
+    @Test
+    public void Write_PlainBytes_KeepOrder() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ColorizingOutputStream output = new ColorizingOutputStream(bytes);
+
+        // ACT
+        output.write('>');
+        output.write(" ok".getBytes(StandardCharsets.UTF_8));
+        output.write("done", format);
+        output.close();
+
+        // ASSERT
+        assertThat(bytes.toString("UTF-8"), equalTo("> ok" + format.format("done")));
+    }
+
+    @Test
+    public void Constructor_RejectsCharsetIncompatibleWithAscii() {
+        // ARRANGE
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // ACT
+
+        // ASSERT
+        assertThrows(IllegalArgumentException.class,
+                () -> new ColorizingOutputStream(bytes, StandardCharsets.UTF_16));
+    }
+}
@@ -0,0 +1,132 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.Ansi;
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.ColorMode;
+import com.diogonunes.jcolor.logging.JColorFormatter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static com.diogonunes.jcolor.Ansi.colorize;
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that log records are formatted with the format of their level.
+ */
+public class TestJColorFormatter {
+
+    private static final String PREFIX = JColorFormatter.class.getName() + ".";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
+    @Test
+    public void Formatter_DefaultFormats() {
+        // ARRANGE
+        Properties properties = new Properties();
+        properties.setProperty(PREFIX + "timePattern", "'at noon'");
+        JColorFormatter formatter = new JColorFormatter(properties);
+        LogRecord record = record(Level.WARNING, "Disk is {0}% full");
+        record.setParameters(new Object[]{95});
+
+        // ACT
+        String text = formatter.format(record);
+
+        // ASSERT
+        String expectedText = colorize("at noon", BRIGHT_BLACK_TEXT()) + " " + colorize("WARNING", YELLOW_TEXT())
+                + " com.example: Disk is 95% full" + LINE_SEPARATOR;
+        assertThat(text, equalTo(expectedText));
+    }
+
+    @Test
+    public void Formatter_ConfiguredFormats() {
+        // ARRANGE
+        Properties properties = new Properties();
+        properties.setProperty(PREFIX + "info", "Bold, text_color(255, 0, 0)");
+        properties.setProperty(PREFIX + "time", "");
+        properties.setProperty(PREFIX + "timePattern", "'now'");
+        JColorFormatter formatter = new JColorFormatter(properties);
+
+        // ACT
+        String text = formatter.format(record(Level.INFO, "Started"));
+
+        // ASSERT
+        String expectedText = "now " + colorize("INFO", BOLD(), TEXT_COLOR(255, 0, 0)) + "    com.example: Started"
+                + LINE_SEPARATOR;
+        assertThat(text, equalTo(expectedText));
+    }
+
+    @Test
+    public void Formatter_CustomLevel_UsesLowerStandardLevel() {
+        // ARRANGE
+        Properties properties = new Properties();
+        properties.setProperty(PREFIX + "timePattern", "'now'");
+        JColorFormatter formatter = new JColorFormatter(properties);
+        Level notice = new Level("NOTICE", Level.INFO.intValue() + 50) {
+        };
+
+        // ACT
+        String text = formatter.format(record(notice, "Custom"));
+
+        // ASSERT
+        assertThat(text, containsString(colorize("NOTICE", GREEN_TEXT()) + "  com.example: Custom"));
+    }
+
+    @Test
+    public void Formatter_StackTrace() {
+        // ARRANGE
+        Properties properties = new Properties();
+        JColorFormatter formatter = new JColorFormatter(properties);
+        LogRecord record = record(Level.SEVERE, "Failed");
+        record.setThrown(new IllegalStateException("broken"));
+
+        // ACT
+        String text = formatter.format(record);
+        String nextText = formatter.format(record(Level.SEVERE, "Again"));
+
+        // ASSERT
+        AnsiFormat severe = new AnsiFormat(BOLD(), RED_TEXT());
+        String stackTraceStart = LINE_SEPARATOR + severe.format("java.lang.IllegalStateException: broken").replace(Ansi.RESET, "");
+        assertThat(text, containsString(stackTraceStart));
+        assertThat(text, endsWith(Ansi.RESET + LINE_SEPARATOR));
+        assertThat(nextText, not(containsString("broken")));
+    }
+
+    @Test
+    public void Formatter_UnknownAttribute() {
+        // ARRANGE
+        Properties properties = new Properties();
+        properties.setProperty(PREFIX + "severe", "bold, blinking");
+
+        // ACT
+
+        // ASSERT
+        assertThrows(IllegalArgumentException.class, () -> new JColorFormatter(properties));
+    }
+
+    private static LogRecord record(Level level, String message) {
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName("com.example");
+        return record;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.diogonunes.jcolor.tests.unit;
+
+import com.diogonunes.jcolor.AnsiFormat;
+import com.diogonunes.jcolor.logging.LogEventFormats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.diogonunes.jcolor.Attribute.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Assert that the format of a log event is chosen from its MDC, and then from its level.
+ */
+public class TestLogEventFormats {
+
+    @Test
+    public void Formats_Defaults() {
+        // ARRANGE
+        LogEventFormats formats = LogEventFormats.defaults();
+
+        // ACT
+        AnsiFormat errorFormat = formats.getFormat("ERROR");
+        AnsiFormat warnFormat = formats.getFormat("warn");
+        AnsiFormat customFormat = formats.getFormat("NOTICE");
+
+        // ASSERT
+        assertThat(errorFormat, equalTo(new AnsiFormat(BOLD(), RED_TEXT())));
+        assertThat(warnFormat, equalTo(new AnsiFormat(YELLOW_TEXT())));
+        assertThat(customFormat, is(nullValue()));
+        assertThat(formats.hasMdcFormats(), equalTo(false));
+    }
+
+    @Test
+    public void Formats_LevelOptions() {
+        // ARRANGE
+        LogEventFormats formats = LogEventFormats.parse(Arrays.asList("error=text_color(255, 0, 0), bold", "INFO=", " "));
+
+        // ACT
+        AnsiFormat errorFormat = formats.getFormat("ERROR");
+        AnsiFormat infoFormat = formats.getFormat("INFO");
+
+        // ASSERT
+        assertThat(errorFormat, equalTo(new AnsiFormat(TEXT_COLOR(255, 0, 0), BOLD())));
+        assertThat(infoFormat, is(nullValue()));
+    }
+
+    @Test
+    public void Formats_MdcOptions() {
+        // ARRANGE
+        LogEventFormats formats = LogEventFormats.parse(Arrays.asList("tenant:acme=magenta", "requestId:*=italic"));
+        Map<String, String> acme = new HashMap<>();
+        acme.put("tenant", "acme");
+        acme.put("requestId", "42");
+        Map<String, String> request = Collections.singletonMap("requestId", "42");
+
+        // ACT
+        AnsiFormat acmeFormat = formats.getFormat("INFO", acme::get);
+        AnsiFormat requestFormat = formats.getFormat("INFO", request::get);
+        AnsiFormat levelFormat = formats.getFormat("INFO", Collections.singletonMap("tenant", "other")::get);
+
+        // ASSERT
+        assertThat(acmeFormat, equalTo(new AnsiFormat(MAGENTA_TEXT())));
+        assertThat(requestFormat, equalTo(new AnsiFormat(ITALIC())));
+        assertThat(levelFormat, equalTo(new AnsiFormat(GREEN_TEXT())));
+        assertThat(formats.hasMdcFormats(), equalTo(true));
+    }
+
+    @Test
+    public void Formats_InvalidOption() {
+        // ARRANGE
+
+        // ACT
+
+        // ASSERT
+        assertThrows(IllegalArgumentException.class, () -> LogEventFormats.parse(Collections.singletonList("bold")));
+        assertThrows(IllegalArgumentException.class, () -> LogEventFormats.parse(Collections.singletonList("ERROR=shiny")));
+    }
+
+}
@@ -3,15 +3,43 @@ package com.diogonunes.jcolor.tests.unit;
 import com.diogonunes.jcolor.Ansi;
 import com.diogonunes.jcolor.AnsiFormat;
 import com.diogonunes.jcolor.Attribute;
+import com.diogonunes.jcolor.ColorMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static com.diogonunes.jcolor.Ansi.*;
 import static com.diogonunes.jcolor.Attribute.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestUsage {
 
+    private ColorMode _previousMode;
+
+    @BeforeEach
+    public void saveColorMode() {
+        _previousMode = Ansi.getColorMode();
+        Ansi.setColorMode(ColorMode.TRUECOLOR);
+    }
+
+    @AfterEach
+    public void restoreColorMode() {
+        Ansi.setColorMode(_previousMode);
+    }
+
     @Test
     public void CanFormatWithOneAttribute() {
         // ARRANGE
@@ -99,4 +127,229 @@ public class TestUsage {
         assertThat(formatNotationOutput.compareTo(arrayNotationOutput), equalTo(0));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void CanReuseFormatAfterChangingItsArray() {
+        // ARRANGE
+        Attribute[] attributes = new Attribute[]{GREEN_TEXT(), BOLD()};
+        AnsiFormat format = new AnsiFormat(attributes);
+        String text = "This text will stay green and bold";
+
+        // ACT
+        attributes[0] = RED_TEXT();
+        String formattedText = format.format(text);
+
+        // ASSERT
+        assertThat(formattedText, equalTo(colorize(text, GREEN_TEXT(), BOLD())));
+    }
+
+    @Test
+    public void CanFormatMultipleLinesWithAnsiFormat() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(WHITE_TEXT(), BLUE_BACK());
+        String newline = System.getProperty("line.separator");
+        String text = "First line" + newline + "Second line";
+
+        // ACT
+        String formattedText = format.format(text);
+
+        // ASSERT
+        String code = Ansi.generateCode(format);
+        assertThat(formattedText, equalTo(code + "First line" + RESET + newline + code + "Second line" + RESET));
+    }
+
+    @Test
+    public void CanFormatIntoStringBuilder() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(RED_TEXT(), BOLD());
+        StringBuilder output = new StringBuilder("Prefix ");
+        String text = "Line 1\nLine 2";
+
+        // ACT
+        colorizeTo(output, text, format);
+
+        // ASSERT
+        assertThat(output.toString(), equalTo("Prefix " + format.format(text)));
+    }
+
+    @Test
+    public void CanFormatInPlace() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(RED_TEXT(), BOLD());
+        String text = "Line 1\nLine 2\r\n\rLine 4\r";
+        StringBuilder output = new StringBuilder("Prefix ").append(text);
+        StringBuilder singleLine = new StringBuilder("Prefix Line 1");
+
+        // ACT
+        format.formatInPlace(output, "Prefix ".length());
+        format.formatInPlace(singleLine, "Prefix ".length());
+
+        // ASSERT
+        assertThat(output.toString(), equalTo("Prefix " + format.format(text)));
+        assertThat(singleLine.toString(), equalTo("Prefix " + format.format("Line 1")));
+    }
+
+    @Test
+    public void CanFormatIntoWriter() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT(), BLACK_BACK());
+        StringWriter output = new StringWriter();
+        String text = "Line 1\r\nLine 2";
+
+        // ACT
+        format.formatTo(output, text);
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(format.format(text)));
+    }
+
+    @Test
+    public void CanFormatIntoCharBuffer() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(TEXT_COLOR(255, 160, 122));
+        CharBuffer output = CharBuffer.allocate(64);
+        StringBuilder text = new StringBuilder("Line 1\nLine 2");
+
+        // ACT
+        colorizeTo(output, text, format);
+
+        // ASSERT
+        output.flip();
+        assertThat(output.toString(), equalTo(format.format(text.toString())));
+    }
+
+    @Test
+    public void CanFormatSliceOfText() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(CYAN_TEXT());
+        String text = "| name | value |";
+
+        // ACT
+        String formattedText = colorize(text, 2, 6, format);
+
+        // ASSERT
+        assertThat(formattedText, equalTo(format.format("name")));
+    }
+
+    @Test
+    public void CanFormatSliceOfCharArray() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(YELLOW_BACK());
+        char[] buffer = "key=line 1\nline 2;".toCharArray();
+        StringBuilder output = new StringBuilder();
+
+        // ACT
+        format.formatTo(output, CharBuffer.wrap(buffer), 4, buffer.length - 1);
+
+        // ASSERT
+        assertThat(output.toString(), equalTo(format.format("line 1\nline 2")));
+    }
+
+    @Test
+    public void CannotFormatSliceOutsideText() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(CYAN_TEXT());
+        String text = "text";
+
+        // ACT
+
+        // ASSERT
+        assertThrows(IndexOutOfBoundsException.class, () -> format.format(text, 2, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> format.format(text, 3, 2));
+    }
+
+    @Test
+    public void CanUseFormatAsKey() {
+        // ARRANGE
+        Map<AnsiFormat, String> names = new HashMap<>();
+        names.put(new AnsiFormat(BOLD(), TEXT_COLOR(255, 0, 0)), "error");
+
+        // ACT
+        String name = names.get(new AnsiFormat(SATURATED(), TEXT_COLOR(255, 0, 0)));
+
+        // ASSERT
+        assertThat(name, equalTo("error"));
+        assertThat(new AnsiFormat(BOLD(), RED_TEXT()), not(equalTo(new AnsiFormat(RED_TEXT(), BOLD()))));
+    }
+
+    @Test
+    public void CanFormatLargeTextInParallel() throws IOException {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(BOLD(), BLUE_BACK());
+        String[] lineBreaks = {"\n", "\r\n", "\r", "\n\n"};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 1_000_000; i++)
+            text.append("line ").append(i).append(lineBreaks[i % lineBreaks.length]);
+        StringWriter output = new StringWriter();
+
+        // ACT
+        String formatted = format.formatParallel(text);
+        format.formatParallelTo(output, text);
+
+        // ASSERT
+        String expectedText = format.format(text.toString());
+        assertThat(formatted, equalTo(expectedText));
+        assertThat(output.toString(), equalTo(expectedText));
+        assertThat(Ansi.colorizeParallel("small\ntext", format), equalTo(format.format("small\ntext")));
+    }
+
+    @Test
+    public void CanFormatStreamOfLines() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(GREEN_TEXT());
+        Stream<String> lines = Stream.of("line 1", "", "line 3");
+
+        // ACT
+        List<String> formatted = Ansi.colorizeLines(lines, format).collect(Collectors.toList());
+
+        // ASSERT
+        assertThat(formatted, contains(format.format("line 1"), format.format(""), format.format("line 3")));
+    }
+
+    @Test
+    public void CanSplitTextIntoFormattedLines() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(BOLD());
+        String text = "line 1\r\nline 2\rline 3\n\nline 5\n";
+
+        // ACT
+        List<String> formatted = format.lines(text).collect(Collectors.toList());
+
+        // ASSERT
+        assertThat(formatted, contains(format.format("line 1"), format.format("line 2"), format.format("line 3"),
+                format.format(""), format.format("line 5")));
+    }
+
+    @Test
+    public void CanSplitMutableTextIntoLines() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(BOLD());
+
+        // ACT
+        Spliterator<String> ofString = format.lines("line 1\nline 2").spliterator();
+        Spliterator<String> ofBuilder = format.lines(new StringBuilder("line 1\nline 2")).spliterator();
+
+        // ASSERT
+        assertThat(ofString.hasCharacteristics(Spliterator.IMMUTABLE), equalTo(true));
+        assertThat(ofBuilder.hasCharacteristics(Spliterator.IMMUTABLE), equalTo(false));
+    }
+
+    @Test
+    public void CanSplitLargeTextIntoFormattedLinesInParallel() {
+        // ARRANGE
+        AnsiFormat format = new AnsiFormat(RED_BACK());
+        String[] lineBreaks = {"\n", "\r\n", "\r"};
+        StringBuilder text = new StringBuilder();
+        List<String> expectedLines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            text.append("line ").append(i).append(lineBreaks[i % lineBreaks.length]);
+            expectedLines.add(format.format("line " + i));
+        }
+
+        // ACT
+        List<String> formatted = Ansi.colorizeLines(text, format).parallel().collect(Collectors.toList());
+
+        // ASSERT
+        assertThat(formatted, equalTo(expectedLines));
+    }
+
+}